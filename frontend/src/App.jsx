@@ -12,6 +12,13 @@ const PrivateRoute = ({ children, isLoggedIn }) => {
     return isLoggedIn ? children : <Navigate to="/login" />;
 };
 
+// Topic-ul notificărilor unui oraș, calculat ca pe server (AlertPublisher.cityDestination): "Brașov" -> "/topic/alerts/brasov"
+const cityAlertsDestination = (city) => {
+    const slug = city.normalize('NFD').replace(/\p{M}/gu, '').toLowerCase()
+        .replace(/[^a-z0-9]+/g, '-').replace(/^-|-$/g, '');
+    return `/topic/alerts/${slug || 'unknown'}`;
+};
+
 function App() {
     const navigate = useNavigate();
     const [isLoggedIn, setIsLoggedIn] = useState(false);
@@ -23,6 +30,39 @@ function App() {
     const [latestNotification, setLatestNotification] = useState(null);
     const stompClientRef = useRef(null);
     const isConnecting = useRef(false);
+    const streamedTextsRef = useRef(new Set());
+    const cityAlertsRef = useRef(null);
+
+    // Un frame poate conține o singură notificare (text) sau mai multe grupate de server (listă JSON)
+    const handleAlertMessage = (message) => {
+        if (!message.body) return;
+        const isBatch = (message.headers['content-type'] || '').startsWith('application/json');
+        const texts = isBatch ? JSON.parse(message.body) : [message.body];
+
+        texts.forEach((text) => {
+            // Generăm un ID unic combinând timpul cu un număr random
+            const uniqueId = `${Date.now()}-${Math.random().toString(36).substr(2, 9)}`;
+            setNotificationsHistory(prev => [{ id: uniqueId, text }, ...prev]);
+            setUnreadCount(prev => prev + 1);
+            // Dacă mesajul a fost deja afișat în flux, nu mai deschidem încă un toast
+            if (streamedTextsRef.current.has(text)) {
+                streamedTextsRef.current.delete(text);
+            } else {
+                setLatestNotification({ text, timestamp: Date.now() });
+            }
+        });
+    };
+
+    // Ne abonăm doar la notificările orașului căutat acum (null = niciun oraș)
+    const watchCity = (city) => {
+        if (cityAlertsRef.current) {
+            cityAlertsRef.current.unsubscribe();
+            cityAlertsRef.current = null;
+        }
+        const stompClient = stompClientRef.current;
+        if (!city || !stompClient?.connected) return;
+        cityAlertsRef.current = stompClient.subscribe(cityAlertsDestination(city), handleAlertMessage);
+    };
 
     // Gestionare WebSocket la nivel global
     useEffect(() => {
@@ -30,6 +70,7 @@ function App() {
             if (stompClientRef.current && stompClientRef.current.connected) {
                 stompClientRef.current.disconnect();
                 stompClientRef.current = null;
+                cityAlertsRef.current = null;
             }
             return;
         }
@@ -46,21 +87,15 @@ function App() {
             isConnecting.current = false;
             stompClientRef.current = stompClient;
 
-            stompClient.subscribe('/topic/alerts', (message) => {
-                if (message.body) {
-                    // Generăm un ID unic combinând timpul cu un număr random
-                    const uniqueId = `${Date.now()}-${Math.random().toString(36).substr(2, 9)}`;
-                    
-                    const newNotif = {
-                        id: uniqueId,
-                        text: message.body
-                    };
-                    
-                    setNotificationsHistory(prev => [newNotif, ...prev]);
-                    setUnreadCount(prev => prev + 1);
-                    setLatestNotification({ text: message.body, timestamp: Date.now() });
-                }
+            // Notificările live ale acestei sesiuni, generate în flux: textul crește pe măsură ce e scris de AI
+            stompClient.subscribe('/user/queue/alerts/stream', (message) => {
+                if (!message.body) return;
+                const chunk = JSON.parse(message.body);
+                if (chunk.done) streamedTextsRef.current.add(chunk.text);
+                setLatestNotification({ streamId: chunk.id, text: chunk.text, done: chunk.done, timestamp: Date.now() });
             });
+
+            stompClient.subscribe('/user/queue/alerts', handleAlertMessage);
         }, (error) => {
             console.error('App: WebSocket connection error:', error);
             isConnecting.current = false;
@@ -79,6 +114,7 @@ function App() {
             if (stompClientRef.current) {
                 stompClientRef.current.disconnect();
                 stompClientRef.current = null;
+                cityAlertsRef.current = null;
             }
             navigate('/login');
         });
@@ -173,6 +209,7 @@ function App() {
                                 <Home 
                                     stompClient={stompClientRef.current} 
                                     latestNotification={latestNotification}
+                                    onCityChange={watchCity}
                                 />
                             </PrivateRoute>
                         }
@@ -58,8 +58,8 @@ function LocationEvents({ onLocationSelect, onLocationClear }) {
     return null;
 }
 
-// Home primește acum stompClient și latestNotification de la App
-const Home = ({ stompClient, latestNotification }) => {
+// Home primește acum stompClient și latestNotification de la App; onCityChange abonează clientul la notificările orașului căutat
+const Home = ({ stompClient, latestNotification, onCityChange }) => {
     const [searchQuery, setSearchQuery] = useState('');
     const [cityToView, setCityToView] = useState(null);
     const [recommendations, setRecommendations] = useState([]);
@@ -71,9 +71,13 @@ const Home = ({ stompClient, latestNotification }) => {
     const [userLocation, setUserLocation] = useState(null);
     
     const currentSearchId = useRef(0);
+    const streamRef = useRef(null);
 
     const handleReset = () => {
+        if (streamRef.current) streamRef.current.close();
+        currentSearchId.current = 0;
         setCityToView(null);
+        if (onCityChange) onCityChange(null);
         setRecommendations([]);
         setSearchQuery('');
         setMarkers([]);
@@ -119,98 +123,69 @@ const Home = ({ stompClient, latestNotification }) => {
         
         const searchId = Date.now();
         currentSearchId.current = searchId;
+        if (streamRef.current) streamRef.current.close();
 
         setCityToView(searchQuery);
+        if (onCityChange) onCityChange(searchQuery);
         setLoading(true);
         setError('');
         setMarkers([]);
         setRecommendations([]);
 
-        recommendationService.getRecommendationsForCity(searchQuery)
-            .then(async (response) => {
-                if (currentSearchId.current !== searchId) return;
+        // Centrăm harta pe oraș în paralel cu sosirea recomandărilor
+        let cityCoords = null;
+        geocodeCity(searchQuery)
+            .then((cityData) => {
+                if (currentSearchId.current !== searchId || !cityData) return;
+                cityCoords = { lat: cityData.lat, lon: cityData.lon };
+                setMapCenter([cityData.lat, cityData.lon]);
+                setMapZoom(13);
+            })
+            .catch(() => {});
 
-                const recs = response.data;
-                setRecommendations(recs.map(r => ({...r, hasLocation: false})));
-                setLoading(false);
-                
-                const cityData = await geocodeCity(searchQuery);
+        // Ignorăm pin-urile aflate la peste 20 km de centrul orașului
+        const isNearCity = (rec) => {
+            if (!cityCoords) return true;
+            return calculateDistance(cityCoords.lat, cityCoords.lon, rec.lat, rec.lon) <= 20;
+        };
+
+        let received = 0;
+        streamRef.current = recommendationService.streamRecommendationsForCity(searchQuery, {
+            // Fiecare loc vine deja cu coordonatele verificate pe server - punem pin-ul imediat
+            onPlace: (rec) => {
                 if (currentSearchId.current !== searchId) return;
+                received++;
+                setLoading(false);
 
-                let cityCoords = null;
-                if (cityData) {
-                    cityCoords = { lat: cityData.lat, lon: cityData.lon };
-                    setMapCenter([cityData.lat, cityData.lon]);
-                    setMapZoom(13);
+                const hasLocation = rec.lat != null && rec.lon != null && isNearCity(rec);
+                setRecommendations(prev => [...prev, { ...rec, hasLocation }]);
+                if (hasLocation) {
+                    setMarkers(prev => [...prev, rec]);
                 }
-
-                for (const rec of recs) {
-                    if (currentSearchId.current !== searchId) break;
-
-                    await new Promise(r => setTimeout(r, 100));
-                    
-                    let wikiData = null;
-                    if (rec.category === 'Tourist Attraction') {
-                        wikiData = await searchWikipedia(rec.name, searchQuery, rec.englishName, cityCoords);
-                    }
-
-                    const geoData = await geocodeLocation(`${rec.name}, ${searchQuery}`);
-                    let finalLat = geoData?.lat || wikiData?.lat || rec.lat;
-                    let finalLon = geoData?.lon || wikiData?.lon || rec.lon;
-                    let finalName = geoData?.officialName || rec.name;
-
-                    if (cityCoords && finalLat && finalLon) {
-                        const dist = calculateDistance(cityCoords.lat, cityCoords.lon, finalLat, finalLon);
-                        if (dist > 20) {
-                            finalLat = null;
-                            finalLon = null;
-                        }
-                    }
-
-                    if (currentSearchId.current === searchId) {
-                        // MODIFICARE: Adăugăm descrierea în marker
-                        const description = wikiData?.extract || rec.description || "No description available.";
-                        
-                        if (finalLat && finalLon) {
-                            setMarkers(prev => [...prev, { 
-                                ...rec, 
-                                name: finalName, 
-                                lat: finalLat, 
-                                lon: finalLon, 
-                                wikipediaLink: wikiData?.wikiUrl, 
-                                imageUrl: wikiData?.imageUrl,
-                                description: description // Salvăm descrierea
-                            }]);
-                            
-                            setRecommendations(prevRecs => 
-                                prevRecs.map(r => r.name === rec.name ? { 
-                                    ...r, 
-                                    name: finalName, 
-                                    hasLocation: true,
-                                    wikipediaLink: wikiData?.wikiUrl,
-                                    description: description
-                                } : r)
-                            );
-                        } else {
-                            setRecommendations(prevRecs => 
-                                prevRecs.map(r => r.name === rec.name ? { 
-                                    ...r, 
-                                    hasLocation: false,
-                                    wikipediaLink: wikiData?.wikiUrl,
-                                    description: description
-                                } : r)
-                            );
-                        }
-                    }
+            },
+            // Datele Wikipedia (link, imagine, descriere) sosesc după verificare
+            onEnriched: (rec) => {
+                if (currentSearchId.current !== searchId) return;
+                setRecommendations(prev => prev.map(r => r.name === rec.name ? { ...r, ...rec, hasLocation: r.hasLocation } : r));
+                setMarkers(prev => prev.map(m => m.name === rec.name ? { ...m, ...rec } : m));
+            },
+            onDone: (count) => {
+                if (currentSearchId.current !== searchId) return;
+                setLoading(false);
+                if (count === 0) {
+                    setCityToView(null);
+                    setError("Could not find recommendations for this city.");
                 }
-            })
-            .catch(err => {
-                if (currentSearchId.current === searchId) {
-                    setLoading(false);
+            },
+            onError: () => {
+                if (currentSearchId.current !== searchId) return;
+                setLoading(false);
+                if (received === 0) {
                     setCityToView(null);
                     setError("Could not find recommendations for this city.");
                 }
-            });
+            }
+        });
     };
 
     const calculateDistance = (lat1, lon1, lat2, lon2) => {
@@ -232,90 +207,6 @@ const Home = ({ stompClient, latestNotification }) => {
         return null;
     };
 
-    const geocodeLocation = async (q) => {
-        try {
-            const res = await fetch(`https://photon.komoot.io/api/?q=${encodeURIComponent(q)}&limit=1`);
-            const data = await res.json();
-            if (data.features.length > 0) {
-                const props = data.features[0].properties;
-                const coords = data.features[0].geometry.coordinates;
-                return { lat: coords[1], lon: coords[0], officialName: props.name };
-            }
-        } catch (e) {}
-        return null;
-    };
-
-    const hasWordOverlap = (str1, str2) => {
-        if (!str1 || !str2) return false;
-        const words1 = str1.toLowerCase().replace(/[^\w\s]/g, '').split(/\s+/).filter(w => w.length > 3);
-        const words2 = str2.toLowerCase().replace(/[^\w\s]/g, '').split(/\s+/).filter(w => w.length > 3);
-        return words1.some(w1 => words2.includes(w1));
-    };
-
-    const searchWikipedia = async (name, city, englishName, cityCoords) => {
-        let res = await fetch(`https://ro.wikipedia.org/w/api.php?action=query&list=search&srsearch=${encodeURIComponent(name + " " + city)}&format=json&origin=*`);
-        let data = await res.json();
-        
-        if (!data.query?.search?.length) {
-             res = await fetch(`https://ro.wikipedia.org/w/api.php?action=query&list=search&srsearch=${encodeURIComponent(name)}&format=json&origin=*`);
-             data = await res.json();
-        }
-
-        if (data.query?.search?.length > 0) {
-            const candidates = data.query.search.slice(0, 3);
-            const nameLower = name.toLowerCase();
-            
-            for (const candidate of candidates) {
-                const titleLower = candidate.title.toLowerCase();
-                if (titleLower === city.toLowerCase()) continue;
-
-                const matchLocal = hasWordOverlap(name, candidate.title);
-                const matchEnglish = englishName ? hasWordOverlap(englishName, candidate.title) : false;
-                const matchReverse = candidate.title.toLowerCase().includes(name.toLowerCase());
-
-                if (!matchLocal && !matchEnglish && !matchReverse) continue;
-
-                const details = await fetchWikiDetails(candidate.title);
-                const extractLower = details.extract ? details.extract.toLowerCase() : "";
-
-                if (nameLower.includes("ortodox") && (titleLower.includes("catolic") || extractLower.includes("catolic") || extractLower.includes("reformat"))) continue;
-                if (nameLower.includes("catolic") && (titleLower.includes("ortodox") || extractLower.includes("ortodox"))) continue;
-
-                if (details.lat && details.lon && cityCoords) {
-                    const dist = calculateDistance(cityCoords.lat, cityCoords.lon, details.lat, details.lon);
-                    if (dist > 20) continue;
-                }
-                
-                return { wikiUrl: `https://ro.wikipedia.org/wiki/${encodeURIComponent(candidate.title)}`, ...details };
-            }
-            
-            let bestPage = data.query.search[0];
-            if (bestPage.title.toLowerCase() === city.toLowerCase()) {
-                if (data.query.search.length > 1) bestPage = data.query.search[1];
-                else return null;
-            }
-            const details = await fetchWikiDetails(bestPage.title);
-            if (details.lat && details.lon && cityCoords) {
-                const dist = calculateDistance(cityCoords.lat, cityCoords.lon, details.lat, details.lon);
-                if (dist > 20) return null;
-            }
-            return { wikiUrl: `https://ro.wikipedia.org/wiki/${encodeURIComponent(bestPage.title)}`, ...details };
-        }
-        return null;
-    };
-
-    const fetchWikiDetails = async (title) => {
-        const res = await fetch(`https://ro.wikipedia.org/w/api.php?action=query&titles=${encodeURIComponent(title)}&prop=pageimages|coordinates|extracts&exintro=1&explaintext=1&format=json&pithumbsize=300&origin=*`);
-        const data = await res.json();
-        const page = Object.values(data.query.pages)[0];
-        return {
-            imageUrl: page.thumbnail?.source,
-            lat: page.coordinates?.[0].lat,
-            lon: page.coordinates?.[0].lon,
-            extract: page.extract ? page.extract.substring(0, 200) + "..." : null
-        };
-    };
-
     return (
         <div className="home-container">
             <LiveRecommendations newNotification={latestNotification} />
@@ -5,11 +5,28 @@ const LiveRecommendations = ({ newNotification }) => {
     const [notifications, setNotifications] = useState([]);
 
     useEffect(() => {
-        if (newNotification) {
+        if (!newNotification) return;
+        if (newNotification.streamId) {
+            upsertStreamingNotification(newNotification);
+        } else {
             addNotification(newNotification.text);
         }
     }, [newNotification]);
 
+    // Același toast este actualizat pe măsură ce sosesc fragmentele; dispare la 5 secunde după ultimul
+    const upsertStreamingNotification = ({ streamId, text, done }) => {
+        setNotifications(prev => {
+            if (prev.some(n => n.id === streamId)) {
+                return prev.map(n => (n.id === streamId ? { ...n, message: text } : n));
+            }
+            return [...prev, { id: streamId, message: text }];
+        });
+
+        setTimeout(() => {
+            removeNotification(streamId);
+        }, done ? 5000 : 15000);
+    };
+
     const addNotification = (message) => {
         const id = Date.now();
         setNotifications(prev => [...prev, { id, message }]);
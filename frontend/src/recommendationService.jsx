@@ -10,6 +10,25 @@ const getRecommendationsForCity = (cityName) => {
     return api.get(`/Recommandations/${cityName}`);
 };
 
+// Varianta progresivă (Server-Sent Events): primim fiecare loc imediat ce a fost verificat pe server,
+// apoi actualizările de la Wikipedia. Returnează EventSource-ul, ca apelantul să-l poată închide.
+const streamRecommendationsForCity = (cityName, { onPlace, onEnriched, onDone, onError }) => {
+    const url = `${api.defaults.baseURL}/recommendation/stream?city=${encodeURIComponent(cityName)}`;
+    const source = new EventSource(url, { withCredentials: true });
+
+    source.addEventListener('place', (e) => onPlace(JSON.parse(e.data)));
+    source.addEventListener('enriched', (e) => onEnriched(JSON.parse(e.data)));
+    source.addEventListener('done', (e) => {
+        source.close();
+        onDone(JSON.parse(e.data).count);
+    });
+    source.onerror = () => {
+        source.close();
+        onError();
+    };
+    return source;
+};
+
 // Funcție nouă pentru a cere sugestii specifice unei locații
 const getSuggestionsForLocation = (locationName, cityName) => {
     return api.post(`/Recommandations/suggestions`, {
@@ -21,6 +40,7 @@ const getSuggestionsForLocation = (locationName, cityName) => {
 const recommendationService = {
     getCities,
     getRecommendationsForCity,
+    streamRecommendationsForCity,
     getSuggestionsForLocation
 };
 
@@ -0,0 +1,166 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.GeocodingStrategyProperties;
+import com.example.demo.Config.RecommendationCacheProperties;
+import com.example.demo.Config.UpstreamProperties;
+import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Entity.City;
+import com.example.demo.Repository.CityRepository;
+import com.example.demo.Repository.GeocodeCacheRepository;
+import com.example.demo.Repository.RecommendationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Etapele pipeline-ului de recomandări, măsurate separat și împreună, contra StubUpstreams:
+ * - parseAiResponse: apelul Groq + parsarea JSON din callGroqAI (cu sau fără streaming)
+ * - geocodePlace: un loc prin GeocodingService (strategia dată de geocodingMode), fără cache
+ * - enrichWithWikipedia: căutarea titlurilor + detaliile paginilor pentru toate atracțiile
+ * - verifyAndGetCoordinates: geocodarea în paralel + eliminarea duplicatelor + cotele per categorie
+ * - fullPipeline: getRecommandations cu cache-ul de recomandări dezactivat
+ * DB-ul este înlocuit cu repository-uri Mockito goale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationPipelineBenchmark {
+
+    private static final String CITY = "Brașov";
+
+    @Param({"true", "false"})
+    public boolean streaming;
+
+    // Latența simulată a fiecărui răspuns de la stub-uri (0 = doar costul local)
+    @Param({"0", "25"})
+    public long stubLatencyMillis;
+
+    @Param({"HEDGED"})
+    public GeocodingStrategyProperties.Mode geocodingMode;
+
+    private StubUpstreams stubs;
+    private UpstreamScheduler scheduler;
+    private OutboundHttpClient httpClient;
+    private ExecutorService tierExecutor;
+    private ExecutorService wikipediaExecutor;
+    private ExecutorService geocodingExecutor;
+
+    private GeocodingService geocodingService;
+    private WikipediaService wikipediaService;
+    private RecommandationService recommandationService;
+
+    private String prompt;
+    private List<RecommandationDto> aiPlaces;
+    private List<RecommandationDto> attractions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        stubs = new StubUpstreams(objectMapper, stubLatencyMillis);
+
+        UpstreamProperties upstreamProperties = stubs.upstreamProperties();
+        scheduler = new UpstreamScheduler(upstreamProperties, meterRegistry);
+        httpClient = new OutboundHttpClient(upstreamProperties, scheduler, meterRegistry);
+        GroqClient groqClient = new GroqClient(httpClient, objectMapper,
+                new LlmResponseStore(null, meterRegistry, LlmResponseStore.Mode.OFF, Duration.ZERO), streaming);
+
+        // Cache-ul de geocodare fără memorie (max-entries 0) și cu DB gol: fiecare căutare ajunge la stub
+        GeocodingCache geocodingCache = new GeocodingCache(mock(GeocodeCacheRepository.class), meterRegistry, 0, Duration.ofDays(30), Duration.ofDays(1));
+        GeocodingStrategyProperties strategy = new GeocodingStrategyProperties();
+        strategy.setMode(geocodingMode);
+        tierExecutor = Executors.newFixedThreadPool(16);
+        geocodingService = new GeocodingService(httpClient, objectMapper, geocodingCache, strategy, meterRegistry, tierExecutor, 2, 4);
+
+        wikipediaExecutor = Executors.newFixedThreadPool(10);
+        wikipediaService = new WikipediaService(httpClient, objectMapper, wikipediaExecutor, meterRegistry);
+
+        City city = new City(CITY);
+        city.setId(1L);
+        CityRepository cityRepository = mock(CityRepository.class);
+        when(cityRepository.findByNameUsingColumnCollation(anyString())).thenReturn(Optional.of(city));
+        when(cityRepository.getReferenceById(1L)).thenReturn(city);
+        RecommendationRepository recommendationRepository = mock(RecommendationRepository.class);
+
+        RecommendationCacheProperties cacheProperties = new RecommendationCacheProperties();
+        cacheProperties.setEnabled(false);
+        geocodingExecutor = Executors.newFixedThreadPool(16);
+        recommandationService = new RecommandationService(
+                new RecommendationWriter(new CityLookupService(cityRepository), recommendationRepository), recommendationRepository, groqClient,
+                objectMapper, geocodingService, wikipediaService, new SpatialIndex(recommendationRepository),
+                new LiveNotificationCache(meterRegistry, 7, 3, Duration.ofHours(6), 5000), cacheProperties, meterRegistry, Runnable::run, geocodingExecutor);
+
+        prompt = "List the most popular places in " + CITY;
+        aiPlaces = recommandationService.callGroqAI(prompt, place -> {});
+        attractions = aiPlaces.stream()
+                .filter(dto -> "Tourist Attraction".equals(dto.category()))
+                .distinct()
+                .toList();
+        if (aiPlaces.isEmpty()) throw new IllegalStateException("Stub Groq response could not be parsed");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tierExecutor.shutdownNow();
+        wikipediaExecutor.shutdownNow();
+        geocodingExecutor.shutdownNow();
+        httpClient.close();
+        scheduler.shutdown();
+        stubs.close();
+    }
+
+    @Benchmark
+    public List<RecommandationDto> parseAiResponse() {
+        return recommandationService.callGroqAI(prompt, place -> {});
+    }
+
+    @Benchmark
+    public double[] geocodePlace() {
+        return geocodingService.getPlaceCoordinates("Biserica Neagră", CITY);
+    }
+
+    @Benchmark
+    public Map<String, WikipediaService.WikiData> enrichWithWikipedia() {
+        return wikipediaService.searchWikipediaData(attractions, CITY, null);
+    }
+
+    @Benchmark
+    public List<RecommandationDto> verifyAndGetCoordinates() {
+        return recommandationService.verifyAndGetCoordinates(aiPlaces, CITY, null, new ConcurrentHashMap<>(), RecommendationListener.NONE);
+    }
+
+    @Benchmark
+    public List<RecommandationDto> fullPipeline() {
+        return recommandationService.getRecommandations(CITY);
+    }
+}
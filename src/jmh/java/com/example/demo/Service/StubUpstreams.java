@@ -0,0 +1,179 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.UpstreamProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servere HTTP locale care înlocuiesc Groq, Nominatim, Photon și Wikipedia în benchmark-uri.
+ * Răspunsurile sunt cele salvate în src/jmh/resources/stubs (%TITLE% este înlocuit cu titlul cerut),
+ * deci rezultatele nu depind de rețea. latencyMillis simulează durata unui apel real.
+ */
+public class StubUpstreams implements AutoCloseable {
+
+    // Câte caractere are un fragment SSE trimis de "Groq" în modul streaming
+    private static final int STREAM_CHUNK_CHARS = 24;
+
+    private final ObjectMapper objectMapper;
+    private final long latencyMillis;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(32);
+
+    private final String recommendations = load("groq-recommendations.json");
+    private final String nominatimSearch = load("nominatim-search.json");
+    private final String photonSearch = load("photon-search.json");
+    private final String wikipediaSearch = load("wikipedia-search.json");
+    private final String wikipediaPage = load("wikipedia-page.json");
+
+    public StubUpstreams(ObjectMapper objectMapper, long latencyMillis) {
+        this.objectMapper = objectMapper;
+        this.latencyMillis = latencyMillis;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/openai/v1/chat/completions", this::groq);
+        server.createContext("/search", exchange -> canned(exchange, nominatimSearch));
+        server.createContext("/api/", exchange -> canned(exchange, photonSearch));
+        server.createContext("/w/api.php", this::wikipedia);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Setările clientului HTTP cu toate serviciile îndreptate spre stub-uri și fără limită practică de ritm
+     */
+    public UpstreamProperties upstreamProperties() {
+        UpstreamProperties properties = new UpstreamProperties();
+        Map<String, UpstreamProperties.Host> hosts = new HashMap<>();
+        for (Upstream upstream : Upstream.values()) {
+            hosts.put(upstream.getKey(), new UpstreamProperties.Host(baseUrl(), Duration.ofSeconds(1), Duration.ofSeconds(10),
+                    64, 2 * 1024 * 1024, 1_000_000.0, 1_000_000));
+        }
+        properties.setHosts(hosts);
+        return properties;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void groq(HttpExchange exchange) throws IOException {
+        boolean stream;
+        try (InputStream body = exchange.getRequestBody()) {
+            stream = objectMapper.readTree(body).path("stream").asBoolean(false);
+        }
+        simulateLatency();
+
+        if (!stream) {
+            ObjectNode completion = objectMapper.createObjectNode();
+            completion.put("object", "chat.completion");
+            ArrayNode choices = completion.putArray("choices");
+            choices.addObject().put("index", 0).put("finish_reason", "stop")
+                    .putObject("message").put("role", "assistant").put("content", recommendations);
+            respond(exchange, completion.toString());
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < recommendations.length(); i += STREAM_CHUNK_CHARS) {
+                ObjectNode chunk = objectMapper.createObjectNode();
+                chunk.put("object", "chat.completion.chunk");
+                chunk.putArray("choices").addObject().put("index", 0)
+                        .putObject("delta").put("content", recommendations.substring(i, Math.min(i + STREAM_CHUNK_CHARS, recommendations.length())));
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void wikipedia(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        Map<String, String> params = queryParams(exchange);
+        if ("search".equals(params.get("list"))) {
+            respond(exchange, wikipediaSearch.replace("%TITLE%", params.getOrDefault("srsearch", "")));
+            return;
+        }
+
+        // Câte o pagină pentru fiecare titlu cerut, ca în răspunsul MediaWiki (pages indexate după pageid)
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode pages = root.putObject("query").putObject("pages");
+        int pageId = 1;
+        for (String title : params.getOrDefault("titles", "").split("\\|")) {
+            if (title.isEmpty()) continue;
+            pages.set(String.valueOf(pageId++), objectMapper.readTree(wikipediaPage.replace("%TITLE%", title)));
+        }
+        respond(exchange, root.toString());
+    }
+
+    private void canned(HttpExchange exchange, String body) throws IOException {
+        simulateLatency();
+        respond(exchange, body);
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) return;
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String load(String name) {
+        try (InputStream in = StubUpstreams.class.getResourceAsStream("/stubs/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing stub payload " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    // Executor mic, dedicat reîmprospătării în fundal a recomandărilor expirate din cache
+    @Bean(name = "recommendationRefreshExecutor")
+    public Executor recommendationRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("rec-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Pool pentru verificarea în paralel a locurilor sugerate de AI (geocodare).
+    // Limita per host (Nominatim / Photon) este aplicată separat în GeocodingService.
+    @Bean(name = "geocodingExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService geocodingExecutor(@Value("${geocoding.parallelism:8}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("geocode-"));
+    }
+
+    // Cererile către Nominatim / Photon pornite în paralel (modurile HEDGED și PARALLEL).
+    // Pool separat de geocodingExecutor, ca o căutare să nu aștepte după propriile sub-cereri.
+    @Bean(name = "geocodingTierExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService geocodingTierExecutor(@Value("${geocoding.tier-parallelism:16}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("geocode-tier-"));
+    }
+
+    // Pool pentru căutările de titluri pe Wikipedia (etapa de îmbogățire)
+    @Bean(name = "wikipediaExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService wikipediaExecutor(@Value("${wikipedia.parallelism:4}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("wiki-"));
+    }
+
+    // Rulează pipeline-ul pentru cererile de streaming (SSE), ca thread-ul servlet să fie eliberat imediat
+    @Bean(name = "recommendationStreamExecutor")
+    public Executor recommendationStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("rec-stream-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Pipeline-ul cererilor HTTP de recomandări (RecommendationRequestRunner), ca thread-ul Tomcat să fie eliberat imediat.
+    // Pool limitat la max-threads, fără coadă: peste limită cererea este refuzată și răspundem 503.
+    @Bean(name = "recommendationRequestExecutor", destroyMethod = "shutdown")
+    public ExecutorService recommendationRequestExecutor(@Value("${recommendation.request.max-threads:200}") int maxThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("rec-request-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Un singur thread pentru pre-încălzirea cache-ului; o rulare nouă nu pornește cât timp rulează alta
+    @Bean(name = "prewarmExecutor")
+    public Executor prewarmExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("prewarm-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,4 +1,4 @@
-/*package com.example.demo.Config;
+package com.example.demo.Config;
 
 import com.example.demo.Entity.City;
 import com.example.demo.Repository.CityRepository;
@@ -11,21 +11,25 @@ import org.springframework.core.io.ClassPathResource;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Configuration
 public class DataInitializer {
 
+    /**
+     * Încarcă catalogul de orașe din cities.json (doar orașele care lipsesc).
+     * Ordinea din fișier devine ordinea id-urilor, folosită de pre-încălzire când nu avem alte date.
+     */
     @Bean
     CommandLineRunner initDatabase(CityRepository cityRepository) {
         return args -> {
             // Pasul 1: Citim orașele din fișierul JSON
             ObjectMapper mapper = new ObjectMapper();
             TypeReference<List<City>> typeReference = new TypeReference<List<City>>(){};
-            InputStream inputStream = new ClassPathResource("cities.json").getInputStream();
             List<City> citiesFromJson;
-            try {
+            try (InputStream inputStream = new ClassPathResource("cities.json").getInputStream()) {
                 citiesFromJson = mapper.readValue(inputStream, typeReference);
             } catch (Exception e) {
                 System.out.println("Unable to read cities.json: " + e.getMessage());
@@ -33,14 +37,15 @@ public class DataInitializer {
             }
 
             // Pasul 2: Citim numele orașelor deja existente în baza de date
+            // (colația MySQL e case-insensitive, deci și comparația de aici)
             Set<String> existingCityNames = cityRepository.findAll()
                     .stream()
-                    .map(City::getName)
+                    .map(city -> city.getName().toLowerCase(Locale.ROOT))
                     .collect(Collectors.toSet());
 
             // Pasul 3: Filtrăm și adăugăm doar orașele noi
             List<City> newCities = citiesFromJson.stream()
-                    .filter(city -> !existingCityNames.contains(city.getName()))
+                    .filter(city -> existingCityNames.add(city.getName().toLowerCase(Locale.ROOT)))
                     .collect(Collectors.toList());
 
             if (!newCities.isEmpty()) {
@@ -52,4 +57,3 @@ public class DataInitializer {
         };
     }
 }
-*/
\ No newline at end of file
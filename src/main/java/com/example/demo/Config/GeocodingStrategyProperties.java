@@ -0,0 +1,46 @@
+package com.example.demo.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Strategia de geocodare (prefix "geocoding.strategy").
+ * SEQUENTIAL - Nominatim, apoi Photon doar dacă Nominatim nu găsește nimic (comportamentul vechi)
+ * HEDGED     - Photon pornește și el dacă Nominatim nu a răspuns într-un timp "normal" (percentila p90)
+ * PARALLEL   - ambele servicii pornesc deodată, câștigă primul răspuns găsit
+ */
+@ConfigurationProperties(prefix = "geocoding.strategy")
+public class GeocodingStrategyProperties {
+
+    public enum Mode { SEQUENTIAL, HEDGED, PARALLEL }
+
+    private Mode mode = Mode.HEDGED;
+
+    // Percentila latenței Nominatim după care trimitem și cererea către Photon
+    private double hedgePercentile = 0.9;
+
+    // Întârzierea folosită până avem destule măsurători, și limitele ei
+    private Duration hedgeInitialDelay = Duration.ofSeconds(1);
+    private Duration hedgeMinDelay = Duration.ofMillis(200);
+    private Duration hedgeMaxDelay = Duration.ofSeconds(3);
+
+    // Câte erori consecutive deschid circuitul unui serviciu și cât timp rămâne deschis
+    private int circuitFailureThreshold = 5;
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+    public double getHedgePercentile() { return hedgePercentile; }
+    public void setHedgePercentile(double hedgePercentile) { this.hedgePercentile = hedgePercentile; }
+    public Duration getHedgeInitialDelay() { return hedgeInitialDelay; }
+    public void setHedgeInitialDelay(Duration hedgeInitialDelay) { this.hedgeInitialDelay = hedgeInitialDelay; }
+    public Duration getHedgeMinDelay() { return hedgeMinDelay; }
+    public void setHedgeMinDelay(Duration hedgeMinDelay) { this.hedgeMinDelay = hedgeMinDelay; }
+    public Duration getHedgeMaxDelay() { return hedgeMaxDelay; }
+    public void setHedgeMaxDelay(Duration hedgeMaxDelay) { this.hedgeMaxDelay = hedgeMaxDelay; }
+    public int getCircuitFailureThreshold() { return circuitFailureThreshold; }
+    public void setCircuitFailureThreshold(int circuitFailureThreshold) { this.circuitFailureThreshold = circuitFailureThreshold; }
+    public Duration getCircuitOpenDuration() { return circuitOpenDuration; }
+    public void setCircuitOpenDuration(Duration circuitOpenDuration) { this.circuitOpenDuration = circuitOpenDuration; }
+}
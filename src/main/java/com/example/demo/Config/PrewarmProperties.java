@@ -0,0 +1,36 @@
+package com.example.demo.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Pre-încălzirea cache-ului de recomandări (prefix "prewarm").
+ * Job-ul pornește după "cron" (implicit noaptea), procesează cel mult "top-n" orașe, unul câte unul,
+ * și se oprește după "max-duration" chiar dacă nu a terminat - orașele rămase sunt reluate data viitoare.
+ */
+@ConfigurationProperties(prefix = "prewarm")
+public class PrewarmProperties {
+
+    private boolean enabled = true;
+    private String cron = "0 0 3 * * *";
+    private int topN = 50;
+    private Duration maxDuration = Duration.ofHours(3);
+
+    // Pauză între orașe, ca job-ul să nu consume tot bugetul de cereri către Groq / Nominatim
+    private Duration pauseBetweenCities = Duration.ofSeconds(10);
+    private boolean runOnStartup = false;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getCron() { return cron; }
+    public void setCron(String cron) { this.cron = cron; }
+    public int getTopN() { return topN; }
+    public void setTopN(int topN) { this.topN = topN; }
+    public Duration getMaxDuration() { return maxDuration; }
+    public void setMaxDuration(Duration maxDuration) { this.maxDuration = maxDuration; }
+    public Duration getPauseBetweenCities() { return pauseBetweenCities; }
+    public void setPauseBetweenCities(Duration pauseBetweenCities) { this.pauseBetweenCities = pauseBetweenCities; }
+    public boolean isRunOnStartup() { return runOnStartup; }
+    public void setRunOnStartup(boolean runOnStartup) { this.runOnStartup = runOnStartup; }
+}
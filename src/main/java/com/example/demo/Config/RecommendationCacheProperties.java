@@ -0,0 +1,60 @@
+package com.example.demo.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Setările cache-ului de recomandări (prefix "recommendation.cache").
+ * Fiecare categorie poate avea propriul TTL și propria fereastră "stale-while-revalidate".
+ */
+@ConfigurationProperties(prefix = "recommendation.cache")
+public class RecommendationCacheProperties {
+
+    private boolean enabled = true;
+
+    // Cât timp datele sunt considerate proaspete
+    private Duration defaultTtl = Duration.ofHours(24);
+
+    // Cât timp după expirarea TTL-ului mai servim datele vechi (și le reîmprospătăm în fundal)
+    private Duration defaultMaxStale = Duration.ofDays(7);
+
+    // Cheile sunt numele categoriei cu litere mici și cratime: tourist-attraction, hotel, restaurant
+    private Map<String, CategoryPolicy> categories = new HashMap<>();
+
+    public CategoryPolicy policyFor(String category) {
+        String key = category == null ? "" : category.trim().toLowerCase().replace(' ', '-');
+        CategoryPolicy policy = categories.get(key);
+        Duration ttl = policy != null && policy.getTtl() != null ? policy.getTtl() : defaultTtl;
+        Duration maxStale = policy != null && policy.getMaxStale() != null ? policy.getMaxStale() : defaultMaxStale;
+        return new CategoryPolicy(ttl, maxStale);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getDefaultTtl() { return defaultTtl; }
+    public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+    public Duration getDefaultMaxStale() { return defaultMaxStale; }
+    public void setDefaultMaxStale(Duration defaultMaxStale) { this.defaultMaxStale = defaultMaxStale; }
+    public Map<String, CategoryPolicy> getCategories() { return categories; }
+    public void setCategories(Map<String, CategoryPolicy> categories) { this.categories = categories; }
+
+    public static class CategoryPolicy {
+        private Duration ttl;
+        private Duration maxStale;
+
+        public CategoryPolicy() {}
+
+        public CategoryPolicy(Duration ttl, Duration maxStale) {
+            this.ttl = ttl;
+            this.maxStale = maxStale;
+        }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+        public Duration getMaxStale() { return maxStale; }
+        public void setMaxStale(Duration maxStale) { this.maxStale = maxStale; }
+    }
+}
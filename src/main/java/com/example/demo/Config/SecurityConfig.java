@@ -52,6 +52,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/recommendation/**").permitAll()
                         .requestMatchers("/api/v1/Recommandations/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
+                        // Doar starea aplicației este publică; metricile (apeluri externe, cozi, durate per oraș) cer autentificare
+                        .requestMatchers("/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 );
 
@@ -65,6 +67,8 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*")); // Permitem toate headerele pentru simplitate în dev
         configuration.setAllowCredentials(true);
+        // Frontend-ul poate citi dacă lista de recomandări este parțială (timeout)
+        configuration.setExposedHeaders(Arrays.asList("X-Recommendations-Partial"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
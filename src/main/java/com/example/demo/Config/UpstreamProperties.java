@@ -0,0 +1,92 @@
+package com.example.demo.Config;
+
+import com.example.demo.Service.Upstream;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Setările clientului HTTP pentru serviciile externe (prefix "upstream").
+ * Valorile din "hosts.<cheie>" suprascriu valorile implicite pentru acel serviciu.
+ */
+@ConfigurationProperties(prefix = "upstream")
+public class UpstreamProperties {
+
+    private int maxTotalConnections = 100;
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    // Cât poate aștepta o cerere la coada UpstreamScheduler înainte să renunțe
+    private Duration maxQueueWait = Duration.ofSeconds(15);
+    private Host defaults = new Host(null, Duration.ofSeconds(3), Duration.ofSeconds(10), 10, 2 * 1024 * 1024, 10.0, 10);
+    private Map<String, Host> hosts = new HashMap<>();
+
+    /**
+     * Setările efective pentru un serviciu: cele specifice, completate cu valorile implicite
+     */
+    public Host forUpstream(Upstream upstream) {
+        Host specific = hosts.getOrDefault(upstream.getKey(), new Host());
+        return new Host(
+                specific.getBaseUrl() != null ? specific.getBaseUrl() : upstream.getDefaultBaseUrl(),
+                specific.getConnectTimeout() != null ? specific.getConnectTimeout() : defaults.getConnectTimeout(),
+                specific.getReadTimeout() != null ? specific.getReadTimeout() : defaults.getReadTimeout(),
+                specific.getMaxConnections() != null ? specific.getMaxConnections() : defaults.getMaxConnections(),
+                specific.getMaxResponseBytes() != null ? specific.getMaxResponseBytes() : defaults.getMaxResponseBytes(),
+                specific.getRequestsPerSecond() != null ? specific.getRequestsPerSecond() : defaults.getRequestsPerSecond(),
+                specific.getBurst() != null ? specific.getBurst() : defaults.getBurst()
+        );
+    }
+
+    public int getMaxTotalConnections() { return maxTotalConnections; }
+    public void setMaxTotalConnections(int maxTotalConnections) { this.maxTotalConnections = maxTotalConnections; }
+    public Duration getConnectionRequestTimeout() { return connectionRequestTimeout; }
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) { this.connectionRequestTimeout = connectionRequestTimeout; }
+    public Duration getIdleEviction() { return idleEviction; }
+    public void setIdleEviction(Duration idleEviction) { this.idleEviction = idleEviction; }
+    public Duration getMaxQueueWait() { return maxQueueWait; }
+    public void setMaxQueueWait(Duration maxQueueWait) { this.maxQueueWait = maxQueueWait; }
+    public Host getDefaults() { return defaults; }
+    public void setDefaults(Host defaults) { this.defaults = defaults; }
+    public Map<String, Host> getHosts() { return hosts; }
+    public void setHosts(Map<String, Host> hosts) { this.hosts = hosts; }
+
+    public static class Host {
+        private String baseUrl;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Integer maxConnections;
+        private Integer maxResponseBytes;
+        // Token bucket: ritmul mediu de cereri și câte cereri pot pleca deodată
+        private Double requestsPerSecond;
+        private Integer burst;
+
+        public Host() {}
+
+        public Host(String baseUrl, Duration connectTimeout, Duration readTimeout, Integer maxConnections, Integer maxResponseBytes,
+                    Double requestsPerSecond, Integer burst) {
+            this.baseUrl = baseUrl;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.maxConnections = maxConnections;
+            this.maxResponseBytes = maxResponseBytes;
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+
+        public String getBaseUrl() { return baseUrl; }
+        public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+        public Duration getReadTimeout() { return readTimeout; }
+        public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+        public Integer getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+        public Integer getMaxResponseBytes() { return maxResponseBytes; }
+        public void setMaxResponseBytes(Integer maxResponseBytes) { this.maxResponseBytes = maxResponseBytes; }
+        public Double getRequestsPerSecond() { return requestsPerSecond; }
+        public void setRequestsPerSecond(Double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+        public Integer getBurst() { return burst; }
+        public void setBurst(Integer burst) { this.burst = burst; }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.Config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Broker-ul pentru destinațiile "/topic" și "/queue" (prefix "websocket.broker").
+ * SIMPLE: abonamentele sunt ținute în memoria aplicației - suficient pentru un singur nod.
+ * RELAY: mesajele sunt trimise unui broker STOMP extern (RabbitMQ, ActiveMQ), deci o notificare trimisă pe un nod
+ * ajunge și la clienții conectați la celelalte noduri din spatele load balancer-ului.
+ */
+@ConfigurationProperties(prefix = "websocket.broker")
+public class WebSocketBrokerProperties {
+
+    public enum Mode { SIMPLE, RELAY }
+
+    private Mode mode = Mode.SIMPLE;
+    private Relay relay = new Relay();
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+    public Relay getRelay() { return relay; }
+    public void setRelay(Relay relay) { this.relay = relay; }
+
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+
+        // Conexiunea "system" a aplicației (mesajele trimise din server)
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+
+        // Conexiunile deschise în numele clienților WebSocket
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+
+        // Header-ul "host" din CONNECT (virtual host-ul în RabbitMQ); gol = nu îl setăm
+        private String virtualHost = "";
+
+        public String getHost() { return host; }
+        public void setHost(String host) { this.host = host; }
+        public int getPort() { return port; }
+        public void setPort(int port) { this.port = port; }
+        public String getSystemLogin() { return systemLogin; }
+        public void setSystemLogin(String systemLogin) { this.systemLogin = systemLogin; }
+        public String getSystemPasscode() { return systemPasscode; }
+        public void setSystemPasscode(String systemPasscode) { this.systemPasscode = systemPasscode; }
+        public String getClientLogin() { return clientLogin; }
+        public void setClientLogin(String clientLogin) { this.clientLogin = clientLogin; }
+        public String getClientPasscode() { return clientPasscode; }
+        public void setClientPasscode(String clientPasscode) { this.clientPasscode = clientPasscode; }
+        public String getVirtualHost() { return virtualHost; }
+        public void setVirtualHost(String virtualHost) { this.virtualHost = virtualHost; }
+    }
+}
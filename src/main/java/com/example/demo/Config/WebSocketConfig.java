@@ -2,6 +2,7 @@ package com.example.demo.Config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -10,12 +11,42 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketBrokerProperties brokerProperties;
+
+    public WebSocketConfig(WebSocketBrokerProperties brokerProperties) {
+        this.brokerProperties = brokerProperties;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Prefixul pentru mesajele care merg de la server la client (Push)
-        config.enableSimpleBroker("/topic");
+        // "/topic/alerts/{oras}" pentru notificările unui oraș, "/queue" pentru destinațiile "/user/queue/..." ale unei sesiuni
+        if (brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY) {
+            enableRelay(config, brokerProperties.getRelay());
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
+        config.setUserDestinationPrefix("/user");
         // Prefixul pentru mesajele care vin de la client la server
         config.setApplicationDestinationPrefixes("/app");
+        // Fragmentele unei notificări în flux trebuie să ajungă la client în ordinea în care au fost trimise
+        config.setPreservePublishOrder(true);
+    }
+
+    /**
+     * Brokerul extern ține abonamentele tuturor nodurilor. Destinațiile "/user/queue/..." sunt rezolvate pe nodul
+     * sesiunii în "/queue/...-user{sessionId}", deci ajung la broker ca orice altă coadă.
+     */
+    private void enableRelay(MessageBrokerRegistry config, WebSocketBrokerProperties.Relay relay) {
+        StompBrokerRelayRegistration registration = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relay.getHost())
+                .setRelayPort(relay.getPort())
+                .setSystemLogin(relay.getSystemLogin())
+                .setSystemPasscode(relay.getSystemPasscode())
+                .setClientLogin(relay.getClientLogin())
+                .setClientPasscode(relay.getClientPasscode());
+        if (!relay.getVirtualHost().isBlank()) registration.setVirtualHost(relay.getVirtualHost());
+        System.out.println("WebSocket broker relay: " + relay.getHost() + ":" + relay.getPort());
     }
 
     @Override
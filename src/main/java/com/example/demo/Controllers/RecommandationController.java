@@ -1,9 +1,9 @@
 package com.example.demo.Controllers;
 
 import com.example.demo.DTO.RecommandationDto;
-import com.example.demo.Service.RecommandationService;
+import com.example.demo.Service.CityNotifier;
+import com.example.demo.Service.RecommendationRequestRunner;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -13,37 +13,32 @@ import java.util.concurrent.CompletableFuture;
 @RequestMapping("/api/v1/Recommandations")
 public class RecommandationController {
 
-    private final RecommandationService recommandationService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RecommendationRequestRunner requestRunner;
+    private final CityNotifier cityNotifier;
 
-    public RecommandationController(RecommandationService recommandationService, SimpMessagingTemplate messagingTemplate) {
-        this.recommandationService = recommandationService;
-        this.messagingTemplate = messagingTemplate;
+    public RecommandationController(RecommendationRequestRunner requestRunner, CityNotifier cityNotifier) {
+        this.requestRunner = requestRunner;
+        this.cityNotifier = cityNotifier;
     }
 
     /**
      * Endpoint-ul principal: Obține recomandările pentru un oraș specificat.
      * Dacă orașul nu există în baza de date, serviciul îl va adăuga.
      * Ex: GET /api/v1/Recommandations/Bucuresti
+     * Thread-ul servlet este eliberat imediat; răspunsul pleacă la finalul pipeline-ului sau, după timeout,
+     * cu locurile găsite până atunci (header X-Recommendations-Partial: true).
      */
     @GetMapping("/{cityName}")
-    public ResponseEntity<List<RecommandationDto>> getRecommandationsForCity(
+    public CompletableFuture<ResponseEntity<List<RecommandationDto>>> getRecommandationsForCity(
             @PathVariable("cityName") String city) {
-        
-        // 1. Obținem recomandările standard (blocant, pentru a returna răspunsul HTTP)
-        List<RecommandationDto> recommandations = recommandationService.getRecommandations(city);
 
-        // 2. Trimitem o notificare "Push" prin WebSocket ASINCRON
-        // Folosim CompletableFuture pentru a nu bloca răspunsul HTTP cât timp AI-ul generează notificarea
-        CompletableFuture.runAsync(() -> {
-            try {
-                String alertMessage = recommandationService.getCityNotification(city);
-                messagingTemplate.convertAndSend("/topic/alerts", alertMessage);
-            } catch (Exception e) {
-                System.err.println("Failed to send WebSocket notification: " + e.getMessage());
-            }
+        // 1. Obținem recomandările standard (asincron, pe recommendationRequestExecutor)
+        return requestRunner.run(city).thenApply(result -> {
+            // 2. Trimitem o notificare "Push" prin WebSocket ASINCRON, doar clienților abonați la orașul respectiv
+            cityNotifier.notifyCity(city);
+            return ResponseEntity.ok()
+                    .header(RecommendationRequestRunner.PARTIAL_HEADER, String.valueOf(result.partial()))
+                    .body(result.recommendations());
         });
-
-        return ResponseEntity.ok(recommandations);
     }
 }
@@ -1,11 +1,26 @@
 package com.example.demo.Controllers;
 
+import com.example.demo.DTO.NearbyPlaceDto;
 import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Service.CityNotifier;
+import com.example.demo.Service.GeocodingService;
 import com.example.demo.Service.RecommandationService;
+import com.example.demo.Service.RecommendationListener;
+import com.example.demo.Service.RecommendationRequestRunner;
+import com.example.demo.Service.SpatialIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/v1/recommendation")
@@ -13,20 +28,101 @@ import java.util.Map;
 public class RecommendationController {
 
     private final RecommandationService recommandationService;
+    private final RecommendationRequestRunner requestRunner;
+    private final GeocodingService geocodingService;
+    private final SpatialIndex spatialIndex;
+    private final CityNotifier cityNotifier;
+    private final Executor streamExecutor;
 
-    public RecommendationController(RecommandationService recommandationService) {
+    public RecommendationController(RecommandationService recommandationService, RecommendationRequestRunner requestRunner,
+                                    GeocodingService geocodingService, SpatialIndex spatialIndex, CityNotifier cityNotifier,
+                                    @Qualifier("recommendationStreamExecutor") Executor streamExecutor) {
         this.recommandationService = recommandationService;
+        this.requestRunner = requestRunner;
+        this.geocodingService = geocodingService;
+        this.spatialIndex = spatialIndex;
+        this.cityNotifier = cityNotifier;
+        this.streamExecutor = streamExecutor;
     }
 
+    /**
+     * Asincron: pipeline-ul rulează pe recommendationRequestExecutor, cu timeout și rezultat parțial
+     * (vezi RecommendationRequestRunner)
+     */
     @GetMapping
-    public List<RecommandationDto> getRecommendations(@RequestParam String city) {
-        return recommandationService.getRecommandations(city);
+    public CompletableFuture<ResponseEntity<List<RecommandationDto>>> getRecommendations(@RequestParam String city) {
+        return requestRunner.run(city).thenApply(result -> ResponseEntity.ok()
+                .header(RecommendationRequestRunner.PARTIAL_HEADER, String.valueOf(result.partial()))
+                .body(result.recommendations()));
+    }
+
+    /**
+     * Varianta progresivă (Server-Sent Events): evenimentul "place" este trimis imediat ce un loc
+     * trece de geocodare, "enriched" când sosesc datele de pe Wikipedia, iar "done" la final.
+     * După "done" pleacă și notificarea WebSocket a orașului (ca la GET /api/v1/Recommandations/{oras}).
+     * Ex: GET /api/v1/recommendation/stream?city=Paris
+     */
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public SseEmitter streamRecommendations(@RequestParam String city) {
+        SseEmitter emitter = new SseEmitter(120_000L);
+
+        try {
+            streamExecutor.execute(() -> {
+                try {
+                    List<RecommandationDto> result = recommandationService.getRecommandations(city, new RecommendationListener() {
+                        @Override
+                        public void onPlaceVerified(RecommandationDto place) {
+                            send(emitter, "place", place);
+                        }
+
+                        @Override
+                        public void onPlaceEnriched(RecommandationDto place) {
+                            send(emitter, "enriched", place);
+                        }
+                    });
+                    send(emitter, "done", Map.of("count", result.size()));
+                    emitter.complete();
+                    cityNotifier.notifyCity(city);
+                } catch (Exception e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            emitter.completeWithError(e);
+        }
+
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Clientul a închis conexiunea - pipeline-ul continuă și salvează rezultatul în cache
+        }
+    }
+
+    /**
+     * Locurile salvate din jurul unui punct, cele mai apropiate primele (din indexul spațial, fără apeluri externe).
+     * Ex: GET /api/v1/recommendation/nearby?lat=44.43&lon=26.10&radius=1000&limit=10
+     */
+    @GetMapping("/nearby")
+    public List<NearbyPlaceDto> nearby(@RequestParam double lat, @RequestParam double lon,
+                                       @RequestParam(defaultValue = "1000") double radius,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        if (!SpatialIndex.isValidCoordinate(lat, lon)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat must be in [-90, 90] and lon in [-180, 180]");
+        }
+        if (!Double.isFinite(radius) || radius < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radius must be a non-negative number");
+        }
+        return spatialIndex.nearby(lat, lon, radius, Math.max(1, Math.min(limit, 100)));
     }
 
     // Endpoint nou pentru a evita eroarea de CORS din frontend
     @GetMapping("/geocode")
     public Map<String, Double> geocodeCity(@RequestParam String city) {
-        double[] coords = recommandationService.getCityCoordinates(city);
+        double[] coords = geocodingService.getCityCoordinates(city);
         if (coords != null) {
             return Map.of("lat", coords[0], "lon", coords[1]);
         }
@@ -0,0 +1,8 @@
+package com.example.demo.DTO;
+
+public record NearbyPlaceDto(
+        RecommandationDto place,
+        String city,
+        double distanceMeters
+) {
+}
@@ -0,0 +1,50 @@
+package com.example.demo.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "geocode_cache")
+public class GeocodeCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Cheia normalizată (loc, oraș) - vezi GeocodingCache.key
+    @Column(unique = true, nullable = false, length = 512)
+    private String cacheKey;
+
+    // false = intrare negativă (locul nu a fost găsit de niciun serviciu)
+    private boolean found;
+
+    private Double latitude;
+    private Double longitude;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public GeocodeCacheEntry() {}
+
+    public GeocodeCacheEntry(String cacheKey, boolean found, Double latitude, Double longitude, LocalDateTime expiresAt) {
+        this.cacheKey = cacheKey;
+        this.found = found;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+    public boolean isFound() { return found; }
+    public void setFound(boolean found) { this.found = found; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "llm_responses")
+public class LlmResponse {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 (hex) peste (model, temperatură, prompt) - vezi LlmResponseStore.hash
+    @Column(unique = true, nullable = false, length = 64)
+    private String promptHash;
+
+    private String model;
+    private double temperature;
+
+    @Column(columnDefinition = "TEXT")
+    private String prompt;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String response;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public LlmResponse() {}
+
+    public LlmResponse(String promptHash, String model, double temperature, String prompt, String response,
+                       LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.promptHash = promptHash;
+        this.model = model;
+        this.temperature = temperature;
+        this.prompt = prompt;
+        this.response = response;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getPromptHash() { return promptHash; }
+    public void setPromptHash(String promptHash) { this.promptHash = promptHash; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public double getTemperature() { return temperature; }
+    public void setTemperature(double temperature) { this.temperature = temperature; }
+    public String getPrompt() { return prompt; }
+    public void setPrompt(String prompt) { this.prompt = prompt; }
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -2,8 +2,12 @@ package com.example.demo.Entity;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "recommendations")
+@Table(name = "recommendations",
+        // Necesară pentru upsert-ul din RecommendationRepositoryImpl
+        uniqueConstraints = @UniqueConstraint(name = "uk_recommendations_city_name", columnNames = {"city_id", "name"}))
 public class Recommendation {
 
     @Id
@@ -11,6 +15,8 @@ public class Recommendation {
     private Long id;
 
     private String name;
+
+    private String englishName;
     
     @Column(length = 1000)
     private String description;
@@ -21,6 +27,9 @@ public class Recommendation {
     private Double latitude;
     private Double longitude;
 
+    // Momentul ultimei actualizări - folosit pentru a decide dacă datele din cache mai sunt proaspete
+    private LocalDateTime updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "city_id", nullable = false)
     private City city;
@@ -43,6 +52,8 @@ public class Recommendation {
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public String getEnglishName() { return englishName; }
+    public void setEnglishName(String englishName) { this.englishName = englishName; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public String getCategory() { return category; }
@@ -55,6 +66,8 @@ public class Recommendation {
     public void setLatitude(Double latitude) { this.latitude = latitude; }
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public City getCity() { return city; }
     public void setCity(City city) { this.city = city; }
 }
@@ -2,8 +2,21 @@ package com.example.demo.Repository;
 
 import com.example.demo.Entity.City;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CityRepository extends JpaRepository<City, Long> {
+
+    /**
+     * Egalitate simplă pe coloana "name" (index unic), deci folosește indexul, spre deosebire de lower(name) = lower(?).
+     * Potrivirea depinde de colația coloanei: cu colația implicită MySQL (utf8mb4_0900_ai_ci) ignoră majusculele
+     * și diacriticele; cu o colație binară / _cs ar deveni sensibilă la majuscule.
+     * Indexul unic folosește aceeași colație, deci un INSERT duplicat eșuează exact pentru numele găsite aici.
+     */
+    @Query("select c from City c where c.name = :name")
+    Optional<City> findByNameUsingColumnCollation(@Param("name") String name);
 }
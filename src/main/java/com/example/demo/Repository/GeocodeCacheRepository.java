@@ -0,0 +1,12 @@
+package com.example.demo.Repository;
+
+import com.example.demo.Entity.GeocodeCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, Long> {
+    Optional<GeocodeCacheEntry> findByCacheKey(String cacheKey);
+}
@@ -0,0 +1,12 @@
+package com.example.demo.Repository;
+
+import com.example.demo.Entity.LlmResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LlmResponseRepository extends JpaRepository<LlmResponse, Long> {
+    Optional<LlmResponse> findByPromptHash(String promptHash);
+}
@@ -2,11 +2,24 @@ package com.example.demo.Repository;
 
 import com.example.demo.Entity.Recommendation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface RecommendationRepository extends JpaRepository<Recommendation, Long> {
-    Optional<Recommendation> findByNameAndCityId(String name, Long cityId);
+public interface RecommendationRepository extends JpaRepository<Recommendation, Long>, RecommendationRepositoryCustom {
+    /**
+     * Toate recomandările salvate pentru un oraș, cele mai recente primele (folosit de cache).
+     * Egalitate simplă pe cities.name (index unic) și apoi city_id (prefixul uk_recommendations_city_name),
+     * ca în CityRepository.findByNameUsingColumnCollation: majusculele sunt ignorate prin colația coloanei,
+     * nu prin upper(name) = upper(?), care nu poate folosi indexul.
+     */
+    @Query("select r from Recommendation r join r.city c where c.name = :cityName order by r.updatedAt desc")
+    List<Recommendation> findByCityNameUsingColumnCollation(@Param("cityName") String cityName);
+
+    // Toate locurile cu coordonate, împreună cu orașul (încărcarea indexului spațial la pornire)
+    @Query("select r from Recommendation r join fetch r.city where r.latitude is not null and r.longitude is not null")
+    List<Recommendation> findAllWithCoordinates();
 }
@@ -0,0 +1,14 @@
+package com.example.demo.Repository;
+
+import com.example.demo.Entity.Recommendation;
+
+import java.util.List;
+
+public interface RecommendationRepositoryCustom {
+
+    /**
+     * Inserează sau actualizează toate recomandările unui oraș într-un singur batch JDBC.
+     * Rândurile existente sunt identificate prin constrângerea unică (city_id, name).
+     */
+    void upsertAll(Long cityId, List<Recommendation> recommendations);
+}
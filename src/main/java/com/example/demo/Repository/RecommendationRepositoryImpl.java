@@ -0,0 +1,51 @@
+package com.example.demo.Repository;
+
+import com.example.demo.Entity.Recommendation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementarea fragmentului custom pentru RecommendationRepository.
+ * Recommendation folosește GenerationType.IDENTITY, deci Hibernate nu poate grupa INSERT-urile;
+ * scriem direct un INSERT ... ON DUPLICATE KEY UPDATE (MySQL) trimis ca batch.
+ * Valorile noi sunt citite prin aliasul de rând "new" (MySQL 8.0.19+), nu prin VALUES(col), care este depreciat.
+ */
+public class RecommendationRepositoryImpl implements RecommendationRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO recommendations (name, english_name, description, category, wikipedia_link, image_url, latitude, longitude, updated_at, city_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) AS new " +
+            "ON DUPLICATE KEY UPDATE english_name = new.english_name, description = new.description, " +
+            "wikipedia_link = new.wikipedia_link, image_url = new.image_url, updated_at = new.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecommendationRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Tot batch-ul într-o singură tranzacție scurtă (o singură conexiune luată din pool)
+    @Override
+    @Transactional
+    public void upsertAll(Long cityId, List<Recommendation> recommendations) {
+        if (recommendations.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, recommendations, recommendations.size(), (ps, rec) -> {
+            LocalDateTime updatedAt = rec.getUpdatedAt() != null ? rec.getUpdatedAt() : LocalDateTime.now();
+            ps.setString(1, rec.getName());
+            ps.setString(2, rec.getEnglishName());
+            ps.setString(3, rec.getDescription());
+            ps.setString(4, rec.getCategory());
+            ps.setString(5, rec.getWikipediaLink());
+            ps.setString(6, rec.getImageUrl());
+            ps.setObject(7, rec.getLatitude());
+            ps.setObject(8, rec.getLongitude());
+            ps.setTimestamp(9, Timestamp.valueOf(updatedAt));
+            ps.setLong(10, cityId);
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trimiterea notificărilor prin WebSocket doar către clienții interesați, nu către toate conexiunile:
+ * - notificarea unui oraș pe "/topic/alerts/{oras}" (numele orașului fără diacritice, ex: "/topic/alerts/brasov")
+ * - notificările live ale unei sesiuni pe "/user/queue/alerts", iar fragmentele în flux pe "/user/queue/alerts/stream"
+ * Cu alerts.batch.window > 0, notificările pentru aceeași destinație sosite în fereastra respectivă pleacă
+ * într-un singur frame (listă JSON); o singură notificare pleacă tot ca text simplu.
+ */
+@Component
+public class AlertPublisher {
+
+    // sessionId == null: destinație publică (topic-ul orașului)
+    private record Target(String destination, String sessionId) {}
+
+    // Lotul în curs al unei destinații și timer-ul care îl trimite la finalul ferestrei
+    private static class Batch {
+        final List<String> alerts = new ArrayList<>();
+        volatile ScheduledFuture<?> timer;
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService batchScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("alert-batch-"));
+
+    private final Map<Target, Batch> pending = new ConcurrentHashMap<>();
+
+    public AlertPublisher(SimpMessagingTemplate messagingTemplate,
+                          @Value("${alerts.batch.window:250ms}") Duration batchWindow,
+                          @Value("${alerts.batch.max-size:20}") int maxBatchSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Destinația notificărilor unui oraș: "Brașov" -> "/topic/alerts/brasov" (frontend-ul calculează la fel)
+     */
+    public static String cityDestination(String city) {
+        String slug = Normalizer.normalize(city, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("^-|-$", "");
+        return "/topic/alerts/" + (slug.isEmpty() ? "unknown" : slug);
+    }
+
+    public void publishToCity(String city, String alert) {
+        enqueue(new Target(cityDestination(city), null), alert);
+    }
+
+    public void publishToSession(String sessionId, String alert) {
+        enqueue(new Target("/queue/alerts", sessionId), alert);
+    }
+
+    /**
+     * Fragmentele în flux nu sunt grupate - clientul le afișează pe măsură ce sosesc
+     */
+    public void streamToSession(String sessionId, Object chunk) {
+        messagingTemplate.convertAndSendToUser(sessionId, "/queue/alerts/stream", chunk, sessionHeaders(sessionId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchScheduler.shutdownNow();
+    }
+
+    private void enqueue(Target target, String alert) {
+        if (batchWindow.isZero() || batchWindow.isNegative()) {
+            send(target, alert);
+            return;
+        }
+
+        // compute / remove pe aceeași cheie sunt atomice: o notificare ajunge fie în lotul trimis, fie în următorul
+        Batch[] current = new Batch[1];
+        int[] size = new int[1];
+        pending.compute(target, (t, existing) -> {
+            Batch batch = existing != null ? existing : new Batch();
+            batch.alerts.add(alert);
+            current[0] = batch;
+            size[0] = batch.alerts.size();
+            return batch;
+        });
+        Batch batch = current[0];
+        if (size[0] >= maxBatchSize) {
+            flush(target, batch);
+        } else if (size[0] == 1) {
+            batch.timer = batchScheduler.schedule(() -> flush(target, batch), batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Trimite lotul doar dacă este încă cel în curs: timer-ul unui lot trimis deja (plin înainte de final)
+     * nu trimite prematur lotul următor al aceleiași destinații
+     */
+    private void flush(Target target, Batch batch) {
+        if (!pending.remove(target, batch)) return;
+        ScheduledFuture<?> timer = batch.timer;
+        if (timer != null) timer.cancel(false);
+        List<String> alerts = batch.alerts;
+        if (alerts.isEmpty()) return;
+
+        try {
+            send(target, alerts.size() == 1 ? alerts.get(0) : alerts);
+        } catch (Exception e) {
+            System.err.println("Failed to send WebSocket alerts: " + e.getMessage());
+        }
+    }
+
+    private void send(Target target, Object payload) {
+        if (target.sessionId() != null) {
+            messagingTemplate.convertAndSendToUser(target.sessionId(), target.destination(), payload, sessionHeaders(target.sessionId()));
+        } else {
+            messagingTemplate.convertAndSend(target.destination(), payload);
+        }
+    }
+
+    /**
+     * Sesiunile WebSocket nu au utilizator autentificat: adresăm destinația "/user/..." după id-ul sesiunii
+     */
+    private static MessageHeaders sessionHeaders(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+}
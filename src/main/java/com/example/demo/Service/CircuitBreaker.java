@@ -0,0 +1,84 @@
+package com.example.demo.Service;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker simplu pentru un serviciu extern.
+ * După N erori consecutive circuitul se deschide și cererile sunt refuzate imediat;
+ * după openDuration o singură cerere de probă (HALF_OPEN) decide dacă se închide la loc.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long rejected;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * true dacă cererea poate pleca; false dacă serviciul trebuie ocolit
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            System.out.println("🔌 Circuit " + name + " închis");
+            state = State.CLOSED;
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            System.err.println("🔌 Circuit " + name + " deschis după " + consecutiveFailures + " erori");
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Cererea de probă nu a ajuns la un rezultat (ex: a fost anulată) - altă cerere poate încerca
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
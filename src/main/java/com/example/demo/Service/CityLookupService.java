@@ -0,0 +1,60 @@
+package com.example.demo.Service;
+
+import com.example.demo.Entity.City;
+import com.example.demo.Repository.CityRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rezolvarea numelui unui oraș la entitatea City, cu o hartă nume -> id în memorie.
+ * După prima căutare nu mai atingem tabelul "cities" pentru același nume.
+ */
+@Service
+public class CityLookupService {
+
+    private final CityRepository cityRepository;
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    public CityLookupService(CityRepository cityRepository) {
+        this.cityRepository = cityRepository;
+    }
+
+    /**
+     * Returnează orașul cu numele dat, creându-l dacă nu există.
+     * Harta din memorie ignoră majusculele; în DB potrivirea urmează colația coloanei cities.name (vezi CityRepository).
+     */
+    public City resolveOrCreate(String cityName) {
+        String key = key(cityName);
+        Long cachedId = idsByName.get(key);
+        if (cachedId != null) {
+            // Referință fără SELECT - avem nevoie doar de id pentru cheia străină
+            return cityRepository.getReferenceById(cachedId);
+        }
+
+        Optional<City> existing = cityRepository.findByNameUsingColumnCollation(cityName);
+        if (existing.isPresent()) {
+            return remember(key, existing.get());
+        }
+
+        try {
+            return remember(key, cityRepository.saveAndFlush(new City(cityName)));
+        } catch (DataIntegrityViolationException e) {
+            // Altă cerere a inserat același oraș între timp - îl citim pe cel salvat de ea
+            return remember(key, cityRepository.findByNameUsingColumnCollation(cityName).orElseThrow(() -> e));
+        }
+    }
+
+    private City remember(String key, City city) {
+        idsByName.put(key, city.getId());
+        return city;
+    }
+
+    private static String key(String cityName) {
+        return cityName.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.Service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Notificarea "Push" trimisă după căutarea unui oraș, comună endpoint-urilor de recomandări
+ * (răspunsul complet din RecommandationController și fluxul SSE din RecommendationController).
+ * Rulează pe PushExecutor, deci răspunsul HTTP nu așteaptă după generarea mesajului.
+ */
+@Component
+public class CityNotifier {
+
+    private final RecommandationService recommandationService;
+    private final AlertPublisher alertPublisher;
+    private final PushExecutor pushExecutor;
+
+    public CityNotifier(RecommandationService recommandationService, AlertPublisher alertPublisher, PushExecutor pushExecutor) {
+        this.recommandationService = recommandationService;
+        this.alertPublisher = alertPublisher;
+        this.pushExecutor = pushExecutor;
+    }
+
+    /**
+     * Trimite notificarea doar clienților abonați la orașul respectiv ("/topic/alerts/{oras}")
+     */
+    public void notifyCity(String city) {
+        pushExecutor.submit(PushExecutor.Kind.NOTIFICATION, () -> {
+            try {
+                String alertMessage = recommandationService.getCityNotification(city);
+                alertPublisher.publishToCity(city, alertMessage);
+            } catch (Exception e) {
+                System.err.println("Failed to send WebSocket notification: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.Service;
+
+import com.example.demo.Entity.GeocodeCacheEntry;
+import com.example.demo.Repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache pe două niveluri pentru rezultatele geocodării:
+ * un LRU în memorie limitat ca dimensiune, în fața tabelului persistent "geocode_cache".
+ * Locurile care nu au fost găsite sunt salvate ca intrări negative, cu un TTL mai scurt.
+ */
+@Component
+public class GeocodingCache {
+
+    /**
+     * Rezultatul din cache: found == false înseamnă intrare negativă.
+     * Coordonatele sunt păstrate ca valori, nu ca double[], ca un apelant să nu poată modifica intrarea partajată.
+     */
+    public record CachedCoordinates(boolean found, double latitude, double longitude, LocalDateTime expiresAt) {
+
+        static CachedCoordinates of(double[] coords, LocalDateTime expiresAt) {
+            return coords != null
+                    ? new CachedCoordinates(true, coords[0], coords[1], expiresAt)
+                    : new CachedCoordinates(false, 0, 0, expiresAt);
+        }
+
+        /**
+         * {lat, lon} într-un tablou nou la fiecare apel, sau null pentru o intrare negativă
+         */
+        public double[] coordinates() {
+            return found ? new double[]{latitude, longitude} : null;
+        }
+
+        boolean isExpired() { return expiresAt.isBefore(LocalDateTime.now()); }
+    }
+
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Map<String, CachedCoordinates> memory;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public GeocodingCache(GeocodeCacheRepository geocodeCacheRepository, MeterRegistry meterRegistry,
+                          @Value("${geocoding.cache.max-entries:10000}") int maxEntries,
+                          @Value("${geocoding.cache.ttl:30d}") Duration ttl,
+                          @Value("${geocoding.cache.negative-ttl:1d}") Duration negativeTtl) {
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        // LinkedHashMap în ordinea accesului = LRU
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCoordinates> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        FunctionCounter.builder("geocoding.cache.lookups", memoryHits, LongAdder::sum).tag("result", "memory-hit").register(meterRegistry);
+        FunctionCounter.builder("geocoding.cache.lookups", databaseHits, LongAdder::sum).tag("result", "database-hit").register(meterRegistry);
+        FunctionCounter.builder("geocoding.cache.lookups", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("geocoding.cache.negative.hits", negativeHits, LongAdder::sum)
+                .description("Hit-uri pe intrări negative (locuri care nu au fost găsite)")
+                .register(meterRegistry);
+        Gauge.builder("geocoding.cache.size", this, GeocodingCache::memorySize)
+                .description("Intrări în LRU-ul din memorie")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Caută mai întâi în memorie, apoi în DB. Returnează null dacă nu există o intrare validă.
+     */
+    public CachedCoordinates get(String place, String city) {
+        String key = key(place, city);
+
+        CachedCoordinates cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+            // Intrarea expirată nu mai ocupă loc în LRU până la evacuarea ei după dimensiune
+            if (cached != null && cached.isExpired()) {
+                memory.remove(key);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            if (!cached.found()) negativeHits.increment();
+            return cached;
+        }
+
+        try {
+            Optional<GeocodeCacheEntry> stored = geocodeCacheRepository.findByCacheKey(key);
+            if (stored.isPresent() && stored.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                GeocodeCacheEntry entry = stored.get();
+                cached = CachedCoordinates.of(
+                        entry.isFound() ? new double[]{entry.getLatitude(), entry.getLongitude()} : null,
+                        entry.getExpiresAt()
+                );
+                synchronized (memory) {
+                    memory.put(key, cached);
+                }
+                databaseHits.increment();
+                if (!cached.found()) negativeHits.increment();
+                return cached;
+            }
+        } catch (Exception e) {
+            System.err.println("Geocoding cache lookup failed for " + key + ": " + e.getMessage());
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Salvează rezultatul unei geocodări reușite; coords == null înregistrează o intrare negativă
+     */
+    public void put(String place, String city, double[] coords) {
+        String key = key(place, city);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(coords != null ? ttl : negativeTtl);
+
+        synchronized (memory) {
+            memory.put(key, CachedCoordinates.of(coords, expiresAt));
+        }
+
+        try {
+            GeocodeCacheEntry entry = geocodeCacheRepository.findByCacheKey(key)
+                    .orElseGet(() -> new GeocodeCacheEntry(key, false, null, null, expiresAt));
+            entry.setFound(coords != null);
+            entry.setLatitude(coords != null ? coords[0] : null);
+            entry.setLongitude(coords != null ? coords[1] : null);
+            entry.setExpiresAt(expiresAt);
+            geocodeCacheRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // Alt thread a salvat aceeași cheie între timp - intrarea din memorie e suficientă
+        } catch (Exception e) {
+            System.err.println("Geocoding cache write failed for " + key + ": " + e.getMessage());
+        }
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * Cheia normalizată: fără diacritice, litere mici, spații comprimate.
+     * Pentru geocodarea unui oraș întreg se folosește city == null.
+     */
+    static String key(String place, String city) {
+        return normalize(place) + "|" + (city == null ? "*" : normalize(city));
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.GeocodingStrategyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Geocodare prin Nominatim (cu fallback pe Photon), cu rezultatele păstrate în GeocodingCache.
+ * Metodele pot fi apelate din mai multe thread-uri în paralel; numărul de cereri
+ * simultane către fiecare host este limitat printr-un semafor.
+ * Ordinea în care sunt întrebate serviciile depinde de geocoding.strategy.mode (vezi GeocodingStrategyProperties),
+ * iar un serviciu cu circuitul deschis este ocolit.
+ * Fiecare treaptă este măsurată în timer-ul "geocoding.tier" (provider, outcome: found | not-found | error | cancelled | skipped | throttled).
+ * Dacă locul nu a putut fi căutat pentru că propria coadă spre serviciu (UpstreamScheduler) este plină,
+ * getPlaceCoordinates aruncă UpstreamThrottledException în loc să returneze null - apelantul poate reîncerca.
+ */
+@Service
+public class GeocodingService {
+
+    private final OutboundHttpClient httpClient;
+    private final UpstreamJson upstreamJson;
+    private final GeocodingCache geocodingCache;
+    private final GeocodingStrategyProperties strategy;
+    private final ExecutorService tierExecutor;
+    private final Semaphore nominatimPermits;
+    private final Semaphore photonPermits;
+
+    private final CircuitBreaker nominatimCircuit;
+    private final CircuitBreaker photonCircuit;
+    private final LatencyWindow nominatimLatency = new LatencyWindow(200);
+    private final LatencyWindow photonLatency = new LatencyWindow(200);
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final MeterRegistry meterRegistry;
+
+    public GeocodingService(OutboundHttpClient httpClient, ObjectMapper objectMapper, GeocodingCache geocodingCache,
+                            GeocodingStrategyProperties strategy, MeterRegistry meterRegistry,
+                            @Qualifier("geocodingTierExecutor") ExecutorService tierExecutor,
+                            @Value("${geocoding.nominatim.max-concurrent:2}") int nominatimMaxConcurrent,
+                            @Value("${geocoding.photon.max-concurrent:4}") int photonMaxConcurrent) {
+        this.httpClient = httpClient;
+        this.upstreamJson = new UpstreamJson(objectMapper);
+        this.geocodingCache = geocodingCache;
+        this.strategy = strategy;
+        this.meterRegistry = meterRegistry;
+        this.tierExecutor = tierExecutor;
+        this.nominatimPermits = new Semaphore(nominatimMaxConcurrent, true);
+        this.photonPermits = new Semaphore(photonMaxConcurrent, true);
+        this.nominatimCircuit = new CircuitBreaker("nominatim", strategy.getCircuitFailureThreshold(), strategy.getCircuitOpenDuration());
+        this.photonCircuit = new CircuitBreaker("photon", strategy.getCircuitFailureThreshold(), strategy.getCircuitOpenDuration());
+        registerStrategyMetrics(nominatimCircuit, nominatimLatency);
+        registerStrategyMetrics(photonCircuit, photonLatency);
+        Gauge.builder("geocoding.hedge.delay", this, GeocodingService::hedgeDelayMillis)
+                .baseUnit("milliseconds")
+                .description("După cât timp pornește cererea Photon în modul HEDGED")
+                .register(meterRegistry);
+        FunctionCounter.builder("geocoding.hedges", hedgesFired, LongAdder::sum).tag("result", "fired").register(meterRegistry);
+        FunctionCounter.builder("geocoding.hedges", hedgeWins, LongAdder::sum).tag("result", "won").register(meterRegistry);
+    }
+
+    /**
+     * Starea circuitului (0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN), cererile refuzate de circuit
+     * și percentilele ferestrei de latență din care se calculează întârzierea "hedge"
+     */
+    private void registerStrategyMetrics(CircuitBreaker circuit, LatencyWindow latency) {
+        String provider = circuit.getName();
+        Gauge.builder("geocoding.circuit.state", circuit, c -> c.getState().ordinal())
+                .tag("provider", provider)
+                .register(meterRegistry);
+        FunctionCounter.builder("geocoding.circuit.rejected", circuit, CircuitBreaker::getRejected)
+                .tag("provider", provider)
+                .register(meterRegistry);
+        for (double quantile : new double[]{0.5, 0.9}) {
+            Gauge.builder("geocoding.latency.window", latency, w -> w.percentile(quantile))
+                    .tag("provider", provider)
+                    .tag("quantile", String.valueOf(quantile))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Obține coordonatele unui loc folosind Nominatim API.
+     * null = locul nu există sau căutarea a eșuat; UpstreamThrottledException = nu am apucat să întrebăm serviciile.
+     */
+    public double[] getPlaceCoordinates(String placeName, String cityName) {
+        GeocodingCache.CachedCoordinates cached = geocodingCache.get(placeName, cityName);
+        if (cached != null) return cached.coordinates();
+
+        try {
+            double[] coords = lookupPlace(placeName, cityName);
+            // Salvăm și rezultatele negative, ca să nu reluăm tot lanțul de fallback data viitoare
+            geocodingCache.put(placeName, cityName, coords);
+            return coords;
+        } catch (InterruptedException e) {
+            // Căutarea a fost anulată (ex: cotele sunt deja completate)
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (UpstreamScheduler.UpstreamThrottledException e) {
+            // Coada noastră spre Nominatim / Photon este plină - nu este un răspuns despre loc, deci nu îl ascundem
+            throw e;
+        } catch (Exception e) {
+            // Erorile de rețea nu sunt puse în cache - doar "nu există" este un rezultat negativ
+            System.err.println("Geocoding failed for " + placeName + ", " + cityName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public double[] getCityCoordinates(String city) {
+        GeocodingCache.CachedCoordinates cached = geocodingCache.get(city, null);
+        if (cached != null) return cached.coordinates();
+
+        try {
+            String url = "/api/?q=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&limit=1";
+            double[] coords = guarded(photonCircuit, () -> parsePhotonResponse(fetch(Upstream.PHOTON, photonPermits, photonLatency, url)));
+            geocodingCache.put(city, null, coords);
+            return coords;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {}
+        return null;
+    }
+
+    /**
+     * Lanțul complet de căutare, fără cache. Returnează null dacă locul nu a fost găsit
+     * și aruncă excepție dacă unul dintre servicii nu a răspuns (sau a fost ocolit).
+     */
+    private double[] lookupPlace(String placeName, String cityName) throws Exception {
+        return switch (strategy.getMode()) {
+            case SEQUENTIAL -> lookupSequential(placeName, cityName);
+            case HEDGED -> race(placeName, cityName, hedgeDelayMillis());
+            case PARALLEL -> race(placeName, cityName, 0);
+        };
+    }
+
+    private double[] lookupSequential(String placeName, String cityName) throws Exception {
+        Exception failure = null;
+        try {
+            double[] coords = guarded(nominatimCircuit, () -> getPlaceCoordinatesFromNominatim(placeName, cityName));
+            if (coords != null) return coords;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        // A treia încercare: Photon API
+        double[] coords = guarded(photonCircuit, () -> getPlaceCoordinatesFromPhoton(placeName, cityName));
+        if (coords == null && failure != null) throw failure;
+        return coords;
+    }
+
+    /**
+     * Nominatim pornește primul; Photon pornește după hedgeDelayMillis dacă Nominatim nu a găsit încă nimic
+     * (imediat, dacă întârzierea e 0). Câștigă primul rezultat găsit, cererea rămasă este anulată.
+     */
+    private double[] race(String placeName, String cityName, long hedgeDelayMillis) throws Exception {
+        CompletionService<double[]> tiers = new ExecutorCompletionService<>(tierExecutor);
+        List<Future<double[]>> started = new ArrayList<>();
+        Exception failure = null;
+        boolean hedged = false;
+
+        started.add(tiers.submit(RequestPriority.current().wrapCallable(
+                () -> guarded(nominatimCircuit, () -> getPlaceCoordinatesFromNominatim(placeName, cityName)))));
+        int pending = 1;
+
+        try {
+            if (hedgeDelayMillis > 0) {
+                Future<double[]> done = tiers.poll(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+                if (done != null) {
+                    pending--;
+                    try {
+                        double[] coords = done.get();
+                        if (coords != null) return coords;
+                    } catch (ExecutionException e) {
+                        failure = asException(e);
+                    }
+                } else {
+                    hedged = true;
+                    hedgesFired.increment();
+                }
+            }
+
+            Future<double[]> photon = tiers.submit(RequestPriority.current().wrapCallable(
+                    () -> guarded(photonCircuit, () -> getPlaceCoordinatesFromPhoton(placeName, cityName))));
+            started.add(photon);
+            pending++;
+
+            while (pending > 0) {
+                Future<double[]> done = tiers.take();
+                pending--;
+                try {
+                    double[] coords = done.get();
+                    if (coords != null) {
+                        if (hedged && done == photon) hedgeWins.increment();
+                        return coords;
+                    }
+                } catch (ExecutionException e) {
+                    failure = asException(e);
+                }
+            }
+
+            if (failure != null) throw failure;
+            return null;
+        } finally {
+            for (Future<double[]> future : started) future.cancel(true);
+        }
+    }
+
+    /**
+     * Percentila latenței Nominatim, limitată la [hedgeMinDelay, hedgeMaxDelay]
+     */
+    private long hedgeDelayMillis() {
+        if (nominatimLatency.size() < 10) return strategy.getHedgeInitialDelay().toMillis();
+        long percentile = nominatimLatency.percentile(strategy.getHedgePercentile());
+        return Math.max(strategy.getHedgeMinDelay().toMillis(), Math.min(strategy.getHedgeMaxDelay().toMillis(), percentile));
+    }
+
+    /**
+     * Rulează o cerere prin circuitul serviciului. Anulările și așteptarea în propria coadă (throttling)
+     * nu sunt numărate ca erori ale serviciului.
+     */
+    private double[] guarded(CircuitBreaker circuit, Callable<double[]> call) throws Exception {
+        long start = System.nanoTime();
+        if (!circuit.tryAcquire()) {
+            recordTier(circuit, "skipped", start);
+            throw new IllegalStateException("Circuit open, skipping provider");
+        }
+        try {
+            double[] coords = call.call();
+            circuit.recordSuccess();
+            recordTier(circuit, coords != null ? "found" : "not-found", start);
+            return coords;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
+                circuit.release();
+                recordTier(circuit, "cancelled", start);
+            } else if (e instanceof UpstreamScheduler.UpstreamThrottledException) {
+                circuit.release();
+                recordTier(circuit, "throttled", start);
+            } else {
+                circuit.recordFailure();
+                recordTier(circuit, "error", start);
+            }
+            throw e;
+        }
+    }
+
+    private void recordTier(CircuitBreaker circuit, String outcome, long startNanos) {
+        Timer.builder("geocoding.tier")
+                .tag("provider", circuit.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private double[] getPlaceCoordinatesFromNominatim(String placeName, String cityName) throws Exception {
+        // Prima încercare: numele complet + oraș
+        String query = URLEncoder.encode(placeName + ", " + cityName, StandardCharsets.UTF_8);
+        String url = "/search?q=" + query + "&format=json&limit=1";
+
+        double[] coords = upstreamJson.nominatimFirstResult(fetch(Upstream.NOMINATIM, nominatimPermits, nominatimLatency, url));
+        if (coords != null) return coords;
+
+        // A doua încercare: doar numele
+        query = URLEncoder.encode(placeName, StandardCharsets.UTF_8);
+        url = "/search?q=" + query + "&format=json&limit=1";
+        return upstreamJson.nominatimFirstResult(fetch(Upstream.NOMINATIM, nominatimPermits, nominatimLatency, url));
+    }
+
+    /**
+     * Fallback: folosește Photon API pentru coordonate
+     */
+    private double[] getPlaceCoordinatesFromPhoton(String placeName, String cityName) throws Exception {
+        String query = URLEncoder.encode(placeName + " " + cityName, StandardCharsets.UTF_8);
+        String url = "/api/?q=" + query + "&limit=1";
+        return parsePhotonResponse(fetch(Upstream.PHOTON, photonPermits, photonLatency, url));
+    }
+
+    private double[] parsePhotonResponse(String response) throws Exception {
+        return upstreamJson.photonFirstResult(response);
+    }
+
+    /**
+     * Latența înregistrată (folosită pentru întârzierea "hedge") este doar a schimbului HTTP: fără așteptarea
+     * semaforului și a cozii UpstreamScheduler, altfel ar crește odată cu propria noastră coadă
+     */
+    private String fetch(Upstream upstream, Semaphore permits, LatencyWindow latency, String url) throws InterruptedException {
+        permits.acquire();
+        try {
+            return httpClient.get(upstream, url, nanos -> latency.record(TimeUnit.NANOSECONDS.toMillis(nanos)));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static Exception asException(ExecutionException e) {
+        return e.getCause() instanceof Exception cause ? cause : e;
+    }
+}
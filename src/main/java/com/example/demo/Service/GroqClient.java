@@ -0,0 +1,191 @@
+package com.example.demo.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Apelurile către Groq (chat completions, API compatibil OpenAI), cu sau fără streaming.
+ * În modul streaming răspunsul vine ca Server-Sent Events ("data: {...}"), iar fiecare bucată de text
+ * (choices[0].delta.content) este trimisă imediat mai departe.
+ * Înainte de orice apel se consultă LlmResponseStore (răspunsuri salvate pentru prompturi identice),
+ * cu excepția variantelor *Unstored și a lucrului din fundal (RequestPriority.BACKGROUND).
+ */
+@Component
+public class GroqClient {
+
+    private static final String COMPLETIONS_PATH = "/openai/v1/chat/completions";
+
+    private final OutboundHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final UpstreamJson upstreamJson;
+    private final LlmResponseStore responseStore;
+    private final String apiKey;
+    private final String model = "llama-3.3-70b-versatile";
+    private final boolean streaming;
+
+    public GroqClient(OutboundHttpClient httpClient, ObjectMapper objectMapper, LlmResponseStore responseStore,
+                      @Value("${groq.streaming:true}") boolean streaming) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.upstreamJson = new UpstreamJson(objectMapper);
+        this.responseStore = responseStore;
+        this.apiKey = System.getenv("GROQ_API_KEY");
+        this.streaming = streaming;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Răspunsul complet (conținutul mesajului generat). jsonMode cere explicit un obiect JSON.
+     * Textul este salvat în LlmResponseStore doar dacă Groq l-a încheiat normal (finish_reason "stop")
+     * și storable îl acceptă (ex: apelantul a reușit să-l parseze).
+     */
+    public String complete(String prompt, double temperature, boolean jsonMode, Predicate<String> storable) throws Exception {
+        String stored = findStored(prompt, temperature);
+        if (stored != null) return stored;
+
+        UpstreamJson.Completion completion = request(prompt, temperature, jsonMode);
+        if (isFinished(completion.finishReason()) && storable.test(completion.content())) {
+            responseStore.save(model, temperature, prompt, completion.content());
+        }
+        return completion.content();
+    }
+
+    /**
+     * Ca complete(), dar fără LlmResponseStore: pentru prompturile care trebuie să dea de fiecare dată alt text
+     */
+    public String completeUnstored(String prompt, double temperature, boolean jsonMode) throws Exception {
+        requireNetwork();
+        return request(prompt, temperature, jsonMode).content();
+    }
+
+    /**
+     * Varianta în flux: onDelta primește fiecare fragment de text pe măsură ce sosește.
+     * Returnează tot textul la final. Modul JSON al Groq nu acceptă streaming,
+     * așa că formatul JSON trebuie cerut prin prompt.
+     * Textul se salvează doar dacă fluxul s-a încheiat cu [DONE] și finish_reason "stop", iar storable îl acceptă.
+     */
+    public String completeStreaming(String prompt, double temperature, Consumer<String> onDelta, Predicate<String> storable) {
+        // Un răspuns salvat este trimis dintr-o bucată
+        String stored = findStored(prompt, temperature);
+        if (stored != null) {
+            onDelta.accept(stored);
+            return stored;
+        }
+
+        StreamedCompletion completion = stream(prompt, temperature, onDelta);
+        String text = completion.text.toString();
+        if (completion.done && isFinished(completion.finishReason) && storable.test(text)) {
+            responseStore.save(model, temperature, prompt, text);
+        }
+        return text;
+    }
+
+    /**
+     * Ca completeStreaming(), dar fără LlmResponseStore
+     */
+    public String completeStreamingUnstored(String prompt, double temperature, Consumer<String> onDelta) {
+        requireNetwork();
+        return stream(prompt, temperature, onDelta).text.toString();
+    }
+
+    /**
+     * Reîmprospătarea cache-ului și pre-încălzirea (BACKGROUND) cer mereu un răspuns nou:
+     * unul salvat ar putea fi mai vechi decât fereastra de prospețime a categoriei.
+     * Răspunsul nou suprascrie apoi pe cel salvat. În REPLAY_ONLY se citește totuși din LlmResponseStore.
+     */
+    private String findStored(String prompt, double temperature) {
+        if (RequestPriority.current() == RequestPriority.BACKGROUND && !responseStore.isReplayOnly()) return null;
+        return responseStore.find(model, temperature, prompt);
+    }
+
+    private UpstreamJson.Completion request(String prompt, double temperature, boolean jsonMode) throws Exception {
+        ObjectNode requestBody = requestBody(prompt, temperature);
+        if (jsonMode) requestBody.putObject("response_format").put("type", "json_object");
+
+        String response = httpClient.post(Upstream.GROQ, COMPLETIONS_PATH, headers(), requestBody.toString());
+        UpstreamJson.Completion completion = upstreamJson.completion(response, "message");
+        if (completion == null || completion.content() == null) throw new RestClientException("No completion content in groq response");
+        return completion;
+    }
+
+    /**
+     * Starea unui răspuns în flux: textul adunat, finish_reason din ultimul fragment și dacă a sosit "data: [DONE]"
+     */
+    private static class StreamedCompletion {
+        final StringBuilder text = new StringBuilder();
+        String finishReason;
+        boolean done;
+    }
+
+    private StreamedCompletion stream(String prompt, double temperature, Consumer<String> onDelta) {
+        ObjectNode requestBody = requestBody(prompt, temperature);
+        requestBody.put("stream", true);
+
+        StreamedCompletion completion = new StreamedCompletion();
+        httpClient.postStreaming(Upstream.GROQ, COMPLETIONS_PATH, headers(), requestBody.toString(), line -> {
+            if (!line.startsWith("data:")) return;
+            String data = line.substring(5).trim();
+            if (data.isEmpty()) return;
+            if ("[DONE]".equals(data)) {
+                completion.done = true;
+                return;
+            }
+
+            UpstreamJson.Completion chunk;
+            try {
+                chunk = upstreamJson.completion(data, "delta");
+            } catch (Exception e) {
+                throw new RestClientException("Invalid stream chunk from groq", e);
+            }
+            if (chunk == null) return;
+            if (chunk.finishReason() != null) completion.finishReason = chunk.finishReason();
+            String delta = chunk.content();
+            if (delta != null && !delta.isEmpty()) {
+                completion.text.append(delta);
+                onDelta.accept(delta);
+            }
+        });
+        return completion;
+    }
+
+    private static boolean isFinished(String finishReason) {
+        return "stop".equals(finishReason);
+    }
+
+    /**
+     * În REPLAY_ONLY nu se face niciun apel în rețea, nici pentru prompturile care nu trec prin LlmResponseStore
+     */
+    private void requireNetwork() {
+        if (responseStore.isReplayOnly()) {
+            throw new LlmResponseStore.ReplayMissException("Unstored groq prompts are not available in REPLAY_ONLY mode");
+        }
+    }
+
+    private ObjectNode requestBody(String prompt, double temperature) {
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", this.model);
+        requestBody.put("temperature", temperature);
+        ArrayNode messages = requestBody.putArray("messages");
+        messages.addObject().put("role", "user").put("content", prompt);
+        return requestBody;
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(this.apiKey);
+        return headers;
+    }
+}
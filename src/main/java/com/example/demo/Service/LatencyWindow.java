@@ -0,0 +1,38 @@
+package com.example.demo.Service;
+
+import java.util.Arrays;
+
+/**
+ * Ultimele N latențe măsurate pentru un serviciu, din care calculăm percentile (ex: p90).
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Percentila cerută (0..1) din fereastra curentă, sau -1 dacă nu avem măsurători
+     */
+    public synchronized long percentile(double p) {
+        if (size == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache pentru notificările live generate de AI, pe celule geohash (precizia 7 ≈ 150 m) + numele locației.
+ * Fiecare celulă păstrează un mic grup de mesaje servite pe rând, fiecare cu TTL propriu;
+ * celulele sunt evacuate LRU peste max-cells. Doar celulele "reci" ajung la Groq.
+ */
+@Component
+public class LiveNotificationCache {
+
+    private static final String GEOHASH_ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    /**
+     * message == null: celula este goală (trebuie generat un mesaj pe loc);
+     * needsMore == true: grupul nu este complet și poate fi completat în fundal
+     */
+    public record Lookup(String key, String message, boolean needsMore) {}
+
+    private record CachedMessage(String text, long expiresAt) {}
+
+    private static class Cell {
+        final List<CachedMessage> messages = new ArrayList<>();
+        int next;
+        boolean fillInFlight;
+    }
+
+    private final int geohashPrecision;
+    private final int poolSize;
+    private final long ttlMillis;
+    private final Map<String, Cell> cells;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+
+    public LiveNotificationCache(MeterRegistry meterRegistry,
+                                 @Value("${live.cache.geohash-precision:7}") int geohashPrecision,
+                                 @Value("${live.cache.pool-size:3}") int poolSize,
+                                 @Value("${live.cache.ttl:6h}") Duration ttl,
+                                 @Value("${live.cache.max-cells:5000}") int maxCells) {
+        this.geohashPrecision = geohashPrecision;
+        this.poolSize = Math.max(1, poolSize);
+        this.ttlMillis = ttl.toMillis();
+        // LinkedHashMap în ordinea accesului = LRU
+        this.cells = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cell> eldest) {
+                return size() > maxCells;
+            }
+        };
+
+        FunctionCounter.builder("live.cache.lookups", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("live.cache.lookups", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("live.cache.stored", stored, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("live.cache.cells", this, LiveNotificationCache::cellCount).register(meterRegistry);
+    }
+
+    /**
+     * Următorul mesaj din grupul celulei (prin rotație). Dacă grupul nu e complet, marchează celula
+     * ca "în completare", ca o singură cerere să genereze mesajul următor.
+     */
+    public Lookup lookup(Double lat, Double lon, String locationName) {
+        String key = key(lat, lon, locationName);
+        long now = System.currentTimeMillis();
+
+        synchronized (cells) {
+            Cell cell = cells.get(key);
+            if (cell != null) cell.messages.removeIf(message -> message.expiresAt() <= now);
+            if (cell == null || cell.messages.isEmpty()) {
+                misses.increment();
+                return new Lookup(key, null, false);
+            }
+
+            hits.increment();
+            CachedMessage message = cell.messages.get(cell.next++ % cell.messages.size());
+            boolean needsMore = cell.messages.size() < poolSize && !cell.fillInFlight;
+            if (needsMore) cell.fillInFlight = true;
+            return new Lookup(key, message.text(), needsMore);
+        }
+    }
+
+    /**
+     * Adaugă un mesaj generat în grupul celulei; cel mai vechi este înlocuit când grupul e plin
+     */
+    public void put(String key, String message) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (cells) {
+            Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+            cell.fillInFlight = false;
+            if (cell.messages.size() >= poolSize) cell.messages.remove(0);
+            cell.messages.add(new CachedMessage(message, expiresAt));
+        }
+        stored.increment();
+    }
+
+    /**
+     * Generarea de completare a eșuat - altă cerere poate încerca
+     */
+    public void fillFailed(String key) {
+        synchronized (cells) {
+            Cell cell = cells.get(key);
+            if (cell != null) cell.fillInFlight = false;
+        }
+    }
+
+    private int cellCount() {
+        synchronized (cells) {
+            return cells.size();
+        }
+    }
+
+    private String key(Double lat, Double lon, String locationName) {
+        String cell = lat != null && lon != null ? geohash(lat, lon, geohashPrecision) : "-";
+        return cell + "|" + GeocodingCache.normalize(locationName);
+    }
+
+    /**
+     * Codificarea geohash standard (biți alternați longitudine / latitudine, base32)
+     */
+    static String geohash(double lat, double lon, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(GEOHASH_ALPHABET.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.Service;
+
+import com.example.demo.Entity.LlmResponse;
+import com.example.demo.Repository.LlmResponseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Răspunsurile Groq salvate în DB, adresate prin hash-ul (model, temperatură, prompt).
+ * Moduri (llm.store.mode):
+ * OFF         - nu se citește și nu se salvează nimic
+ * READ_WRITE  - promptul identic primește răspunsul salvat până la expirare; altfel apel + salvare
+ * REPLAY_ONLY - doar răspunsurile salvate (ignorând expirarea), fără rețea; un prompt necunoscut este o eroare.
+ *               Util pentru teste de încărcare deterministe, offline.
+ */
+@Component
+public class LlmResponseStore {
+
+    public enum Mode { OFF, READ_WRITE, REPLAY_ONLY }
+
+    public static class ReplayMissException extends RestClientException {
+        public ReplayMissException(String message) {
+            super(message);
+        }
+    }
+
+    private final LlmResponseRepository llmResponseRepository;
+    private final Mode mode;
+    private final Duration ttl;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder replayMisses = new LongAdder();
+
+    public LlmResponseStore(LlmResponseRepository llmResponseRepository, MeterRegistry meterRegistry,
+                            @Value("${llm.store.mode:READ_WRITE}") Mode mode,
+                            @Value("${llm.store.ttl:7d}") Duration ttl) {
+        this.llmResponseRepository = llmResponseRepository;
+        this.mode = mode;
+        this.ttl = ttl;
+
+        String modeTag = mode.name().toLowerCase(Locale.ROOT);
+        FunctionCounter.builder("llm.store.lookups", hits, LongAdder::sum).tags("mode", modeTag, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("llm.store.lookups", misses, LongAdder::sum).tags("mode", modeTag, "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("llm.store.lookups", replayMisses, LongAdder::sum).tags("mode", modeTag, "result", "replay-miss").register(meterRegistry);
+        FunctionCounter.builder("llm.store.saved", stored, LongAdder::sum).tag("mode", modeTag).register(meterRegistry);
+    }
+
+    public boolean isReplayOnly() {
+        return mode == Mode.REPLAY_ONLY;
+    }
+
+    /**
+     * Răspunsul salvat pentru prompt sau null dacă trebuie apelat Groq.
+     * În REPLAY_ONLY, lipsa răspunsului aruncă ReplayMissException.
+     */
+    public String find(String model, double temperature, String prompt) {
+        if (mode == Mode.OFF) return null;
+
+        String hash = hash(model, temperature, prompt);
+        Optional<LlmResponse> entry = Optional.empty();
+        try {
+            entry = llmResponseRepository.findByPromptHash(hash);
+        } catch (Exception e) {
+            System.err.println("LLM store lookup failed for " + hash + ": " + e.getMessage());
+        }
+
+        if (entry.isPresent() && (mode == Mode.REPLAY_ONLY || entry.get().getExpiresAt().isAfter(LocalDateTime.now()))) {
+            hits.increment();
+            return entry.get().getResponse();
+        }
+
+        if (mode == Mode.REPLAY_ONLY) {
+            replayMisses.increment();
+            throw new ReplayMissException("No recorded LLM response for prompt " + hash);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void save(String model, double temperature, String prompt, String response) {
+        if (mode != Mode.READ_WRITE || response == null || response.isBlank()) return;
+
+        String hash = hash(model, temperature, prompt);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            LlmResponse entry = llmResponseRepository.findByPromptHash(hash)
+                    .orElseGet(() -> new LlmResponse(hash, model, temperature, prompt, null, null, null));
+            entry.setResponse(response);
+            entry.setCreatedAt(now);
+            entry.setExpiresAt(now.plus(ttl));
+            llmResponseRepository.save(entry);
+            stored.increment();
+        } catch (DataIntegrityViolationException e) {
+            // Alt thread a salvat același prompt între timp
+        } catch (Exception e) {
+            System.err.println("LLM store write failed for " + hash + ": " + e.getMessage());
+        }
+    }
+
+    static String hash(String model, double temperature, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String material = model + "\n" + temperature + "\n" + prompt;
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
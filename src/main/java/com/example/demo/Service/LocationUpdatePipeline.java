@@ -0,0 +1,179 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.UserLocationDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Procesarea actualizărilor de locație primite prin WebSocket, separat pentru fiecare sesiune:
+ * - debounce: așteptăm ca utilizatorul să se oprească din mișcat harta; contează doar ultima poziție
+ * - dacă nu s-a mutat mai mult de min-distance față de ultima notificare generată, nu generăm alta
+ * - o generare pornită pentru o poziție veche este anulată când apare una nouă
+ * Notificarea ajunge doar la sesiunea care a trimis locația: textul pe "/user/queue/alerts/stream" pe măsură
+ * ce este scris de AI ({id, text, done}), iar mesajul final pe "/user/queue/alerts" (vezi AlertPublisher).
+ */
+@Component
+public class LocationUpdatePipeline {
+
+    private static class SessionState {
+        UserLocationDto pending;
+        ScheduledFuture<?> debounceTask;
+        Future<?> inFlight;
+        UserLocationDto lastGenerated;
+        long generation;
+    }
+
+    private final RecommandationService recommandationService;
+    private final AlertPublisher alertPublisher;
+    private final PushExecutor pushExecutor;
+    private final ScheduledExecutorService debounceScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("live-debounce-"));
+    private final Duration debounce;
+    private final double minDistanceMeters;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder skippedNotMoved = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    public LocationUpdatePipeline(RecommandationService recommandationService, AlertPublisher alertPublisher,
+                                  PushExecutor pushExecutor, MeterRegistry meterRegistry,
+                                  @Value("${live.debounce:400ms}") Duration debounce,
+                                  @Value("${live.min-distance-meters:100}") double minDistanceMeters) {
+        this.recommandationService = recommandationService;
+        this.alertPublisher = alertPublisher;
+        this.pushExecutor = pushExecutor;
+        this.debounce = debounce;
+        this.minDistanceMeters = minDistanceMeters;
+
+        // Actualizările de locație: primite / comasate / sărite (fără mișcare) / anulate / abandonate / trimise
+        Map.of("received", received, "coalesced", coalesced, "skipped-not-moved", skippedNotMoved,
+                "cancelled", cancelled, "dropped", dropped, "sent", sent).forEach((event, count) ->
+                FunctionCounter.builder("live.location.updates", count, LongAdder::sum).tag("event", event).register(meterRegistry));
+        Gauge.builder("live.sessions", sessions, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Înregistrează ultima poziție a sesiunii și (re)pornește temporizatorul de debounce
+     */
+    public void submit(String sessionId, UserLocationDto location) {
+        received.increment();
+        SessionState state = sessions.computeIfAbsent(sessionId, id -> new SessionState());
+        synchronized (state) {
+            if (state.pending != null) coalesced.increment();
+            state.pending = location;
+            if (state.debounceTask != null) state.debounceTask.cancel(false);
+            state.debounceTask = debounceScheduler.schedule(() -> flush(sessionId, state), debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionState state = sessions.remove(event.getSessionId());
+        if (state == null) return;
+        synchronized (state) {
+            if (state.debounceTask != null) state.debounceTask.cancel(false);
+            if (state.inFlight != null) state.inFlight.cancel(true);
+            state.pending = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        debounceScheduler.shutdownNow();
+    }
+
+    /**
+     * Poziția s-a stabilizat: pornim generarea (anulând-o pe cea veche), dacă utilizatorul s-a mutat suficient
+     */
+    private void flush(String sessionId, SessionState state) {
+        synchronized (state) {
+            UserLocationDto location = state.pending;
+            state.pending = null;
+            state.debounceTask = null;
+            if (location == null || sessions.get(sessionId) != state) return;
+
+            if (state.lastGenerated != null && !movedEnough(state.lastGenerated, location)) {
+                skippedNotMoved.increment();
+                return;
+            }
+
+            if (state.inFlight != null && !state.inFlight.isDone()) {
+                state.inFlight.cancel(true);
+                cancelled.increment();
+            }
+
+            long generation = ++state.generation;
+            state.lastGenerated = location;
+            state.inFlight = pushExecutor.submit(PushExecutor.Kind.LOCATION,
+                    () -> generate(sessionId, state, generation, location),
+                    () -> onDropped(state, generation));
+        }
+    }
+
+    /**
+     * Generarea a fost abandonată de PushExecutor (coadă plină) - următoarea mișcare a utilizatorului va reîncerca
+     */
+    private void onDropped(SessionState state, long generation) {
+        dropped.increment();
+        synchronized (state) {
+            if (state.generation == generation) state.lastGenerated = null;
+        }
+    }
+
+    private void generate(String sessionId, SessionState state, long generation, UserLocationDto location) {
+        String streamId = sessionId + "-" + generation;
+        try {
+            String liveRecommendation = recommandationService.getLiveRecommendation(location, partial -> {
+                if (isCurrent(state, generation)) {
+                    alertPublisher.streamToSession(sessionId, Map.of("id", streamId, "text", partial, "done", false));
+                }
+            });
+
+            // Între timp a sosit o poziție nouă - răspunsul acesta nu mai este relevant
+            if (!isCurrent(state, generation)) return;
+            alertPublisher.streamToSession(sessionId, Map.of("id", streamId, "text", liveRecommendation, "done", true));
+            alertPublisher.publishToSession(sessionId, liveRecommendation);
+            sent.increment();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isCurrent(SessionState state, long generation) {
+        synchronized (state) {
+            return state.generation == generation && !Thread.currentThread().isInterrupted();
+        }
+    }
+
+    private boolean movedEnough(UserLocationDto previous, UserLocationDto current) {
+        if (previous.latitude() == null || previous.longitude() == null
+                || current.latitude() == null || current.longitude() == null) {
+            return !Objects.equals(previous.locationName(), current.locationName());
+        }
+        return SpatialIndex.distanceMeters(previous.latitude(), previous.longitude(),
+                current.latitude(), current.longitude()) >= minDistanceMeters;
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.UpstreamProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Clientul HTTP prin care trec toate apelurile externe (Groq, Nominatim, Photon, Wikipedia).
+ * Un singur pool de conexiuni (keep-alive), cu limită de conexiuni, timeout-uri și
+ * dimensiune maximă a răspunsului configurate separat pentru fiecare serviciu.
+ * Fiecare cerere trece mai întâi prin UpstreamScheduler (limita de ritm a serviciului).
+ * Fiecare încercare este măsurată în timer-ul "upstream.calls" (tag-uri upstream și outcome:
+ * success | error | timeout | throttled | cancelled), deci numărul de apeluri, erori și timeout-uri per serviciu.
+ */
+@Component
+public class OutboundHttpClient {
+
+    // De câte ori reluăm o cerere refuzată cu 429/503
+    private static final int MAX_RETRIES = 2;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+    private final Map<Upstream, UpstreamProperties.Host> settings = new EnumMap<>(Upstream.class);
+    private final Map<Upstream, HttpRoute> routes = new EnumMap<>(Upstream.class);
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final UpstreamScheduler scheduler;
+    private final MeterRegistry meterRegistry;
+
+    public OutboundHttpClient(UpstreamProperties properties, UpstreamScheduler scheduler, MeterRegistry meterRegistry) {
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotalConnections());
+
+        Map<HttpRoute, ConnectionConfig> connectionConfigs = new LinkedHashMap<>();
+        for (Upstream upstream : Upstream.values()) {
+            UpstreamProperties.Host host = properties.forUpstream(upstream);
+            HttpRoute route = routeFor(host.getBaseUrl());
+            settings.put(upstream, host);
+            routes.put(upstream, route);
+
+            connectionManager.setMaxPerRoute(route, host.getMaxConnections());
+            connectionConfigs.put(route, ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(host.getConnectTimeout().toMillis()))
+                    .setSocketTimeout(Timeout.ofMilliseconds(host.getReadTimeout().toMillis()))
+                    .build());
+        }
+        ConnectionConfig fallback = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(properties.getDefaults().getConnectTimeout().toMillis()))
+                .setSocketTimeout(Timeout.ofMilliseconds(properties.getDefaults().getReadTimeout().toMillis()))
+                .build();
+        connectionManager.setConnectionConfigResolver(route -> connectionConfigs.getOrDefault(route, fallback));
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Cât așteptăm o conexiune liberă din pool
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectionRequestTimeout().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleEviction().toMillis()))
+                .build();
+
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+
+        // Starea pool-ului de conexiuni: total și pe fiecare serviciu
+        registerPoolGauges("total", () -> connectionManager.getTotalStats());
+        routes.forEach((upstream, route) -> registerPoolGauges(upstream.getKey(), () -> connectionManager.getStats(route)));
+    }
+
+    /**
+     * GET către un serviciu extern; pathAndQuery se adaugă la URL-ul de bază al serviciului
+     */
+    public String get(Upstream upstream, String pathAndQuery) {
+        return get(upstream, pathAndQuery, nanos -> {});
+    }
+
+    /**
+     * Ca get(), dar onExchangeNanos primește durata schimbului HTTP reușit - fără așteptarea în coada
+     * programatorului, deci doar cât de repede a răspuns serviciul
+     */
+    public String get(Upstream upstream, String pathAndQuery, LongConsumer onExchangeNanos) {
+        return scheduled(upstream, () -> restTemplate.execute(url(upstream, pathAndQuery), HttpMethod.GET, null,
+                response -> readLimited(upstream, response)), onExchangeNanos);
+    }
+
+    public String post(Upstream upstream, String path, HttpHeaders headers, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return scheduled(upstream, () -> restTemplate.execute(url(upstream, path), HttpMethod.POST,
+                request -> {
+                    request.getHeaders().putAll(headers);
+                    request.getBody().write(bytes);
+                },
+                response -> readLimited(upstream, response)), nanos -> {});
+    }
+
+    /**
+     * POST cu răspuns în flux (ex: Server-Sent Events): fiecare linie este dată consumer-ului imediat ce sosește.
+     * Limita de dimensiune a serviciului se aplică pe tot răspunsul.
+     */
+    public void postStreaming(Upstream upstream, String path, HttpHeaders headers, String body, Consumer<String> onLine) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        scheduled(upstream, () -> restTemplate.execute(url(upstream, path), HttpMethod.POST,
+                request -> {
+                    request.getHeaders().putAll(headers);
+                    request.getBody().write(bytes);
+                },
+                response -> {
+                    readLines(upstream, response, onLine);
+                    return "";
+                }), nanos -> {});
+    }
+
+    /**
+     * Execută cererea când programatorul o permite. La 429/503 serviciul este oprit cât cere
+     * Retry-After, iar cererea se reia (tot prin coadă, deci cu aceeași prioritate).
+     */
+    private String scheduled(Upstream upstream, Supplier<String> call, LongConsumer onExchangeNanos) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                scheduler.acquire(upstream, RequestPriority.current());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestClientException("Interrupted while waiting for a " + upstream.getKey() + " request slot", e);
+            }
+
+            long start = System.nanoTime();
+            try {
+                String response = call.get();
+                long elapsed = System.nanoTime() - start;
+                recordCall(upstream, "success", start);
+                onExchangeNanos.accept(elapsed);
+                return response;
+            } catch (HttpStatusCodeException e) {
+                int status = e.getStatusCode().value();
+                boolean throttled = status == 429 || status == 503;
+                recordCall(upstream, throttled ? "throttled" : "error", start);
+                if (!throttled) throw e;
+
+                Duration retryAfter = retryAfter(e.getResponseHeaders());
+                System.err.println("⏳ " + upstream.getKey() + " a răspuns " + status + ", pauză " + retryAfter.toMillis() + " ms");
+                scheduler.pause(upstream, retryAfter);
+                if (attempt >= MAX_RETRIES) throw e;
+            } catch (RuntimeException e) {
+                recordCall(upstream, outcomeOf(e), start);
+                throw e;
+            }
+        }
+    }
+
+    private void recordCall(Upstream upstream, String outcome, long startNanos) {
+        Timer.builder("upstream.calls")
+                .tag("upstream", upstream.getKey())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Timeout-urile de conectare, citire și așteptare în pool sunt toate InterruptedIOException;
+     * o cerere întreruptă de apelant (anulare) nu este o eroare a serviciului
+     */
+    private static String outcomeOf(Exception e) {
+        if (Thread.currentThread().isInterrupted()) return "cancelled";
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException) return "timeout";
+        }
+        return "error";
+    }
+
+    /**
+     * Retry-After poate fi un număr de secunde sau o dată HTTP (RFC 1123)
+     */
+    private static Duration retryAfter(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) return DEFAULT_RETRY_AFTER;
+
+        Duration duration;
+        try {
+            duration = Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                duration = Duration.between(ZonedDateTime.now(until.getZone()), until);
+            } catch (DateTimeParseException ex) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+        if (duration.isNegative()) return Duration.ZERO;
+        return duration.compareTo(MAX_RETRY_AFTER) > 0 ? MAX_RETRY_AFTER : duration;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Apelanții trimit interogarea deja codificată (URLEncoder), deci URI-ul este construit fără a o mai codifica o dată.
+     * Un caracter necodificat (ex: "|") este o eroare a apelantului și aruncă IllegalArgumentException.
+     */
+    private URI url(Upstream upstream, String pathAndQuery) {
+        return UriComponentsBuilder.fromUriString(settings.get(upstream).getBaseUrl() + pathAndQuery).build(true).toUri();
+    }
+
+    /**
+     * Citește corpul răspunsului, dar refuză răspunsurile mai mari decât limita serviciului
+     */
+    private String readLimited(Upstream upstream, ClientHttpResponse response) throws IOException {
+        int maxBytes = settings.get(upstream).getMaxResponseBytes();
+        if (response.getHeaders().getContentLength() > maxBytes) {
+            throw new RestClientException("Response from " + upstream.getKey() + " exceeds " + maxBytes + " bytes");
+        }
+
+        try (InputStream body = response.getBody()) {
+            byte[] bytes = body.readNBytes(maxBytes + 1);
+            if (bytes.length > maxBytes) {
+                throw new RestClientException("Response from " + upstream.getKey() + " exceeds " + maxBytes + " bytes");
+            }
+            MediaType contentType = response.getHeaders().getContentType();
+            Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            return new String(bytes, charset);
+        }
+    }
+
+    /**
+     * Limita se aplică pe octeții primiți (ca în readLimited), nu pe caracterele decodate
+     */
+    private void readLines(Upstream upstream, ClientHttpResponse response, Consumer<String> onLine) throws IOException {
+        int maxBytes = settings.get(upstream).getMaxResponseBytes();
+        InputStream body = new LimitedInputStream(response.getBody(), maxBytes, upstream);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                onLine.accept(line);
+            }
+        }
+    }
+
+    /**
+     * Numără octeții citiți din corpul răspunsului și aruncă excepție imediat ce depășesc limita
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private final Upstream upstream;
+        private long read;
+
+        LimitedInputStream(InputStream in, long maxBytes, Upstream upstream) {
+            super(in);
+            this.maxBytes = maxBytes;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long bytes) {
+            read += bytes;
+            if (read > maxBytes) {
+                throw new RestClientException("Response from " + upstream.getKey() + " exceeds " + maxBytes + " bytes");
+            }
+        }
+    }
+
+    private void registerPoolGauges(String upstream, Supplier<PoolStats> stats) {
+        Map<String, ToIntFunction<PoolStats>> states = Map.of(
+                "leased", PoolStats::getLeased,
+                "available", PoolStats::getAvailable,
+                "pending", PoolStats::getPending,
+                "max", PoolStats::getMax);
+        states.forEach((state, value) -> Gauge.builder("upstream.pool.connections", stats, s -> value.applyAsInt(s.get()))
+                .tag("upstream", upstream)
+                .tag("state", state)
+                .register(meterRegistry));
+    }
+
+    private static HttpRoute routeFor(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evenimentele unei rulări a pipeline-ului, pentru toate cererile care o așteaptă.
+ * Cine se abonează mai târziu (o cerere alăturată prin SingleFlight) primește întâi evenimentele de până atunci,
+ * apoi pe cele noi, în aceeași ordine ca cererea care a pornit rularea.
+ */
+class PipelineProgress implements RecommendationListener {
+
+    private record Event(RecommandationDto place, boolean enriched) {}
+
+    private final List<Event> events = new ArrayList<>();
+    private final List<RecommendationListener> listeners = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * false dacă rularea s-a încheiat deja (evenimentele nu mai sunt păstrate)
+     */
+    synchronized boolean subscribe(RecommendationListener listener) {
+        if (closed) return false;
+        for (Event event : events) deliver(listener, event);
+        listeners.add(listener);
+        return true;
+    }
+
+    synchronized void unsubscribe(RecommendationListener listener) {
+        listeners.remove(listener);
+    }
+
+    synchronized void close() {
+        closed = true;
+        events.clear();
+        listeners.clear();
+    }
+
+    @Override
+    public synchronized void onPlaceVerified(RecommandationDto place) {
+        publish(new Event(place, false));
+    }
+
+    @Override
+    public synchronized void onPlaceEnriched(RecommandationDto place) {
+        publish(new Event(place, true));
+    }
+
+    private void publish(Event event) {
+        if (closed) return;
+        events.add(event);
+        for (RecommendationListener listener : listeners) deliver(listener, event);
+    }
+
+    private static void deliver(RecommendationListener listener, Event event) {
+        if (event.enriched()) listener.onPlaceEnriched(event.place());
+        else listener.onPlaceVerified(event.place());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.PrewarmProperties;
+import com.example.demo.Entity.City;
+import com.example.demo.Repository.CityRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pre-încălzirea recomandărilor pentru cele mai cerute orașe din catalog, în afara orelor de vârf.
+ * Orașele sunt ordonate după numărul de cereri de la pornire, apoi după ordinea din cities.json.
+ * Job-ul poate fi reluat oricând: orașele care au deja recomandări proaspete în DB sunt sărite,
+ * deci după un restart continuă practic de unde a rămas.
+ */
+@Service
+public class PrewarmService {
+
+    private final PrewarmProperties properties;
+    private final CityRepository cityRepository;
+    private final RecommandationService recommandationService;
+    private final Executor prewarmExecutor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Progresul ultimei rulări (metricile "prewarm.cities" și "prewarm.running")
+    private volatile int planned;
+    private volatile int warmed;
+    private volatile int skippedFresh;
+    private volatile int failed;
+
+    public PrewarmService(PrewarmProperties properties, CityRepository cityRepository, RecommandationService recommandationService,
+                          @Qualifier("prewarmExecutor") Executor prewarmExecutor, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cityRepository = cityRepository;
+        this.recommandationService = recommandationService;
+        this.prewarmExecutor = prewarmExecutor;
+
+        Gauge.builder("prewarm.running", running, r -> r.get() ? 1 : 0).register(meterRegistry);
+        Gauge.builder("prewarm.cities", this, p -> p.planned).tag("state", "planned").register(meterRegistry);
+        Gauge.builder("prewarm.cities", this, p -> p.warmed).tag("state", "warmed").register(meterRegistry);
+        Gauge.builder("prewarm.cities", this, p -> p.skippedFresh).tag("state", "skipped-fresh").register(meterRegistry);
+        Gauge.builder("prewarm.cities", this, p -> p.failed).tag("state", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${prewarm.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) trigger();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isEnabled() && properties.isRunOnStartup()) trigger();
+    }
+
+    /**
+     * Pornește o rulare pe thread-ul dedicat; false dacă rulează deja una
+     */
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            prewarmExecutor.execute(() -> {
+                try {
+                    runOnce();
+                } catch (Exception e) {
+                    System.err.println("Prewarm failed: " + e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    private void runOnce() throws InterruptedException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        String stopReason = null;
+        warmed = 0;
+        skippedFresh = 0;
+        failed = 0;
+
+        List<String> cities = selectCities();
+        planned = cities.size();
+        LocalDateTime deadline = startedAt.plus(properties.getMaxDuration());
+        System.out.println("🔥 Prewarm started for " + cities.size() + " cities");
+
+        for (String cityName : cities) {
+            if (LocalDateTime.now().isAfter(deadline)) {
+                stopReason = "max-duration reached";
+                break;
+            }
+
+            if (!recommandationService.needsWarming(cityName)) {
+                skippedFresh++;
+                continue;
+            }
+
+            try {
+                recommandationService.warm(cityName);
+                warmed++;
+            } catch (Exception e) {
+                failed++;
+                System.err.println("Prewarm failed for " + cityName + ": " + e.getMessage());
+            }
+            Thread.sleep(properties.getPauseBetweenCities().toMillis());
+        }
+
+        if (stopReason == null) stopReason = "completed";
+        System.out.println("🔥 Prewarm " + stopReason + ": " + warmed + " warmed, " + skippedFresh + " already fresh, " + failed + " failed");
+    }
+
+    /**
+     * Primele top-n orașe: cele mai cerute întâi, apoi în ordinea catalogului (id crescător)
+     */
+    private List<String> selectCities() {
+        Map<String, Long> requestCounts = recommandationService.getRequestCounts();
+        List<City> cities = new ArrayList<>(cityRepository.findAll());
+        cities.sort(Comparator
+                .comparingLong((City city) -> -requestCounts.getOrDefault(city.getName().toLowerCase(Locale.ROOT), 0L))
+                .thenComparing(City::getId));
+        return cities.stream()
+                .limit(properties.getTopN())
+                .map(City::getName)
+                .toList();
+    }
+}
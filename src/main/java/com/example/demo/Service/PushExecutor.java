@@ -0,0 +1,163 @@
+package com.example.demo.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor dedicat notificărilor push (WebSocket): generarea notificărilor live la schimbarea locației și
+ * notificarea trimisă după căutarea unui oraș. Task-urile fac apeluri blocante la Groq, deci nu rulează pe
+ * ForkJoinPool.commonPool.
+ * Coada este limitată (push.queue-capacity). Când este plină:
+ * - întâi sunt scoase task-urile anulate (generări înlocuite de o poziție mai nouă)
+ * - apoi cea mai veche generare de locație din coadă este abandonată în favoarea task-ului nou
+ * - dacă în coadă sunt doar notificări, task-ul nou este abandonat
+ * Un task abandonat nu rulează; Future-ul lui este anulat și se apelează onDropped.
+ */
+@Component
+public class PushExecutor {
+
+    public enum Kind { LOCATION, NOTIFICATION }
+
+    private final class PushTask extends FutureTask<Void> {
+        final Kind kind;
+        final Runnable onDropped;
+        final long enqueuedAt = System.nanoTime();
+
+        PushTask(Kind kind, Runnable task, Runnable onDropped) {
+            super(task, null);
+            this.kind = kind;
+            this.onDropped = onDropped;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) return;
+            long start = System.nanoTime();
+            waitTimers.get(kind).record(start - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                super.run();
+            } finally {
+                runTimers.get(kind).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<Kind, Timer> waitTimers = new EnumMap<>(Kind.class);
+    private final Map<Kind, Timer> runTimers = new EnumMap<>(Kind.class);
+
+    public PushExecutor(MeterRegistry meterRegistry,
+                        @Value("${push.threads:4}") int threads,
+                        @Value("${push.queue-capacity:50}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        // Pool fix: toate thread-urile pornite de la început, ca task-urile puse direct în coadă la evacuare să fie preluate
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("push-"),
+                (task, pool) -> onQueueFull((PushTask) task, pool));
+        executor.prestartAllCoreThreads();
+
+        for (Kind kind : Kind.values()) {
+            String tag = tag(kind);
+            waitTimers.put(kind, meterRegistry.timer("push.task.wait", "kind", tag));
+            runTimers.put(kind, meterRegistry.timer("push.task.duration", "kind", tag));
+            Gauge.builder("push.queue.depth", this, e -> e.queued(kind))
+                    .tag("kind", tag)
+                    .description("Task-uri push care așteaptă un thread")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("push.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Task-uri push care rulează acum")
+                .register(meterRegistry);
+    }
+
+    public Future<?> submit(Kind kind, Runnable task) {
+        return submit(kind, task, () -> {});
+    }
+
+    /**
+     * Pune task-ul în coadă; dacă este abandonat (coadă plină, oprire), Future-ul este anulat și se apelează onDropped
+     * (pe thread-ul care a cerut evacuarea - trebuie să fie rapid).
+     */
+    public Future<?> submit(Kind kind, Runnable task, Runnable onDropped) {
+        PushTask pushTask = new PushTask(kind, task, onDropped);
+        executor.execute(pushTask);
+        return pushTask;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void onQueueFull(PushTask incoming, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            drop(incoming, "shutdown");
+            return;
+        }
+
+        PushTask evicted = null;
+        boolean accepted;
+        // Callback-urile onDropped rulează după eliberarea lock-ului (ele iau lock-ul sesiunii din LocationUpdatePipeline)
+        synchronized (this) {
+            BlockingQueue<Runnable> queue = pool.getQueue();
+            pool.purge();
+            accepted = queue.offer(incoming);
+            if (!accepted) {
+                evicted = oldestQueuedLocation(queue);
+                if (evicted != null && queue.remove(evicted)) {
+                    accepted = queue.offer(incoming);
+                } else {
+                    evicted = null;
+                }
+            }
+        }
+
+        if (evicted != null) drop(evicted, "stale");
+        if (!accepted) drop(incoming, "queue-full");
+    }
+
+    private PushTask oldestQueuedLocation(BlockingQueue<Runnable> queue) {
+        for (Runnable queued : queue) {
+            if (queued instanceof PushTask task && task.kind == Kind.LOCATION) return task;
+        }
+        return null;
+    }
+
+    private void drop(PushTask task, String reason) {
+        task.cancel(false);
+        meterRegistry.counter("push.tasks.dropped", "kind", tag(task.kind), "reason", reason).increment();
+        System.err.println("Push task (" + tag(task.kind) + ") dropped: " + reason);
+        try {
+            task.onDropped.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private double queued(Kind kind) {
+        List<Runnable> snapshot = new ArrayList<>(executor.getQueue());
+        return snapshot.stream().filter(r -> r instanceof PushTask task && task.kind == kind).count();
+    }
+
+    private static String tag(Kind kind) {
+        return kind.name().toLowerCase(Locale.ROOT);
+    }
+}
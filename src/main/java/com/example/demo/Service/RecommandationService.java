@@ -1,69 +1,284 @@
 package com.example.demo.Service;
 
+import com.example.demo.Config.RecommendationCacheProperties;
+import com.example.demo.DTO.NearbyPlaceDto;
 import com.example.demo.DTO.RecommandationDto;
 import com.example.demo.DTO.UserLocationDto;
-import com.example.demo.Entity.City;
 import com.example.demo.Entity.Recommendation;
-import com.example.demo.Repository.CityRepository;
 import com.example.demo.Repository.RecommendationRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Service
 public class RecommandationService {
 
-    private final CityRepository cityRepository;
+    private final RecommendationWriter recommendationWriter;
     private final RecommendationRepository recommendationRepository;
-    private final RestTemplate restTemplate;
+    private final GroqClient groqClient;
     private final ObjectMapper objectMapper;
-    private final String groqApiKey;
-    private final String groqModel = "llama-3.3-70b-versatile";
+    private final UpstreamJson upstreamJson;
+    private final GeocodingService geocodingService;
+    private final WikipediaService wikipediaService;
+    private final SpatialIndex spatialIndex;
+    private final LiveNotificationCache liveNotificationCache;
+    private final RecommendationCacheProperties cacheProperties;
+    private final Executor refreshExecutor;
+    private final ExecutorService geocodingExecutor;
+
+    // Durata fiecărei etape a pipeline-ului ("recommendation.stage", tag stage) și locurile eliminate la verificare
+    private final Timer aiFetchTimer;
+    private final Timer additionalAttractionsTimer;
+    private final Timer geocodingTimer;
+    private final Timer persistenceTimer;
+    private final Timer pipelineTimer;
+    private final DistributionSummary droppedPlaces;
+    private final DistributionSummary throttledPlaces;
 
     // CONFIGURAȚIE: Numărul exact de recomandări per categorie
     private static final int MAX_HOTELS = 2;
     private static final int MAX_RESTAURANTS = 2;
     private static final int MAX_ATTRACTIONS = 10;
 
-    public RecommandationService(CityRepository cityRepository, RecommendationRepository recommendationRepository, RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.cityRepository = cityRepository;
+    // Locurile geocodate mai departe de centrul orașului sunt considerate greșite
+    private static final double MAX_DISTANCE_FROM_CITY_METERS = 20_000;
+
+    // Notificările live folosesc întâi locurile salvate aflate la cel mult această distanță
+    private static final double LIVE_NEARBY_RADIUS_METERS = 500;
+
+    private enum Freshness { FRESH, STALE, EXPIRED }
+
+    // Orașele pentru care rulează deja o reîmprospătare în fundal
+    private final Set<String> refreshingCities = ConcurrentHashMap.newKeySet();
+
+    // Cererile simultane pentru același oraș împart o singură rulare a pipeline-ului
+    private final SingleFlight<String, List<RecommandationDto>> pipelineFlights = new SingleFlight<>();
+    private final Map<String, PipelineProgress> pipelineProgress = new ConcurrentHashMap<>();
+    private final SingleFlight<String, String> liveFlights = new SingleFlight<>();
+
+    // Câte cereri a primit fiecare oraș de la pornire (folosit de pre-încălzire pentru ordinea orașelor)
+    private static final int MAX_TRACKED_CITIES = 10_000;
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+
+    public RecommandationService(RecommendationWriter recommendationWriter, RecommendationRepository recommendationRepository, GroqClient groqClient, ObjectMapper objectMapper,
+                                 GeocodingService geocodingService, WikipediaService wikipediaService, SpatialIndex spatialIndex,
+                                 LiveNotificationCache liveNotificationCache,
+                                 RecommendationCacheProperties cacheProperties, MeterRegistry meterRegistry,
+                                 @Qualifier("recommendationRefreshExecutor") Executor refreshExecutor,
+                                 @Qualifier("geocodingExecutor") ExecutorService geocodingExecutor) {
+        this.recommendationWriter = recommendationWriter;
         this.recommendationRepository = recommendationRepository;
-        this.restTemplate = restTemplate;
+        this.groqClient = groqClient;
         this.objectMapper = objectMapper;
-        this.groqApiKey = System.getenv("GROQ_API_KEY");
+        this.upstreamJson = new UpstreamJson(objectMapper);
+        this.geocodingService = geocodingService;
+        this.wikipediaService = wikipediaService;
+        this.spatialIndex = spatialIndex;
+        this.liveNotificationCache = liveNotificationCache;
+        this.cacheProperties = cacheProperties;
+        this.refreshExecutor = refreshExecutor;
+        this.geocodingExecutor = geocodingExecutor;
+        this.aiFetchTimer = meterRegistry.timer("recommendation.stage", "stage", "ai-fetch");
+        this.additionalAttractionsTimer = meterRegistry.timer("recommendation.stage", "stage", "additional-attractions");
+        this.geocodingTimer = meterRegistry.timer("recommendation.stage", "stage", "geocoding");
+        this.persistenceTimer = meterRegistry.timer("recommendation.stage", "stage", "persistence");
+        this.pipelineTimer = meterRegistry.timer("recommendation.stage", "stage", "pipeline");
+        this.droppedPlaces = DistributionSummary.builder("recommendation.places.dropped")
+                .description("Locuri propuse de AI care nu au fost găsite la geocodare, per rulare a pipeline-ului")
+                .serviceLevelObjectives(1, 2, 3, 5, 8, 13) // Micrometer acceptă doar limite > 0; rulările fără pierderi intră în "le 1"
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        this.throttledPlaces = DistributionSummary.builder("recommendation.places.throttled")
+                .description("Locuri care nu au putut fi geocodate nici după reîncercare pentru că propria coadă spre Nominatim / Photon era plină")
+                .register(meterRegistry);
     }
 
     public List<RecommandationDto> getRecommandations(String cityName) {
+        return getRecommandations(cityName, RecommendationListener.NONE);
+    }
+
+    /**
+     * Varianta progresivă: listener-ul primește fiecare loc imediat ce a fost verificat,
+     * apoi actualizările de la Wikipedia. Rezultatul final este același ca la varianta blocantă.
+     */
+    public List<RecommandationDto> getRecommandations(String cityName, RecommendationListener listener) {
         String normalizedCityName = cityName.trim();
-        String simpleCityName = extractSimpleCityName(normalizedCityName);
+        countRequest(normalizedCityName);
 
-        // 1. Asigurăm că orașul există în DB (pentru a putea salva recomandările ulterior)
-        City city = saveCityIfNotExists(normalizedCityName);
+        // 0. Cache read-through: servim rândurile salvate dacă sunt suficient de proaspete
+        List<RecommandationDto> cached = lookupCache(normalizedCityName);
+        if (cached != null) {
+            cached.forEach(listener::onPlaceVerified);
+            return cached;
+        }
 
-        // 2. ÎNTOTDEAUNA interogăm AI-ul pentru recomandări proaspete
-        // Nu verificăm DB-ul pentru a returna date existente.
-        List<RecommandationDto> aiPopularPlaces = fetchMostPopularFromAI(simpleCityName);
+        // Dacă ne-am alăturat unei rulări chiar când aceasta se încheia, listener-ul nostru nu a primit
+        // evenimentele intermediare - le trimitem la final pe cele care lipsesc
+        Set<String> emitted = ConcurrentHashMap.newKeySet();
+        List<RecommandationDto> result = computeCoalesced(normalizedCityName, new RecommendationListener() {
+            @Override
+            public void onPlaceVerified(RecommandationDto place) {
+                emitted.add(place.name());
+                listener.onPlaceVerified(place);
+            }
 
-        // 3. Verificăm existența reală și obținem coordonatele
-        List<RecommandationDto> verifiedPlaces = verifyAndGetCoordinates(aiPopularPlaces, simpleCityName);
+            @Override
+            public void onPlaceEnriched(RecommandationDto place) {
+                listener.onPlaceEnriched(place);
+            }
+        });
+        for (RecommandationDto place : result) {
+            if (!emitted.contains(place.name())) listener.onPlaceVerified(place);
+        }
+        return result;
+    }
+
+    /**
+     * Returnează recomandările din DB dacă sunt proaspete sau în fereastra "stale"
+     * (caz în care pornește și reîmprospătarea în fundal); altfel null.
+     */
+    private List<RecommandationDto> lookupCache(String normalizedCityName) {
+        if (!cacheProperties.isEnabled()) return null;
+
+        List<Recommendation> stored = recommendationRepository.findByCityNameUsingColumnCollation(normalizedCityName);
+        if (stored.isEmpty()) return null;
+
+        Freshness freshness = evaluateFreshness(stored);
+        if (freshness == Freshness.FRESH) {
+            return toCachedResult(stored);
+        }
+        if (freshness == Freshness.STALE) {
+            // Stale-while-revalidate: răspundem imediat și reîmprospătăm în fundal
+            scheduleRefresh(normalizedCityName);
+            return toCachedResult(stored);
+        }
+        return null;
+    }
+
+    /**
+     * true dacă orașul nu are recomandări salvate sau acestea nu mai sunt proaspete
+     */
+    public boolean needsWarming(String cityName) {
+        if (!cacheProperties.isEnabled()) return false;
+        List<Recommendation> stored = recommendationRepository.findByCityNameUsingColumnCollation(cityName.trim());
+        return stored.isEmpty() || evaluateFreshness(stored) != Freshness.FRESH;
+    }
+
+    /**
+     * Rulează pipeline-ul pentru un oraș cu prioritate BACKGROUND (pre-încălzire), fără a număra cererea
+     */
+    public List<RecommandationDto> warm(String cityName) {
+        String normalizedCityName = cityName.trim();
+        return RequestPriority.BACKGROUND.call(() -> computeCoalesced(normalizedCityName, RecommendationListener.NONE));
+    }
+
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        requestCounts.forEach((city, count) -> counts.put(city, count.sum()));
+        return counts;
+    }
+
+    private void countRequest(String normalizedCityName) {
+        String key = flightKey(normalizedCityName);
+        LongAdder count = requestCounts.get(key);
+        if (count == null) {
+            if (requestCounts.size() >= MAX_TRACKED_CITIES) return;
+            count = requestCounts.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * O cerere care se alătură unei rulări în curs se abonează la progresul ei, ca să primească și ea
+     * locurile verificate până atunci (ex: pentru răspunsul parțial la timeout), nu doar rezultatul final
+     */
+    private List<RecommandationDto> computeCoalesced(String normalizedCityName, RecommendationListener listener) {
+        String key = flightKey(normalizedCityName);
+        PipelineProgress running = pipelineProgress.get(key);
+        boolean joined = running != null && running.subscribe(listener);
+        try {
+            return pipelineFlights.execute(key, () -> {
+                PipelineProgress progress = new PipelineProgress();
+                progress.subscribe(listener);
+                pipelineProgress.put(key, progress);
+                try {
+                    return computeRecommandations(normalizedCityName, progress);
+                } finally {
+                    pipelineProgress.remove(key, progress);
+                    progress.close();
+                }
+            });
+        } finally {
+            if (joined) running.unsubscribe(listener);
+        }
+    }
+
+    private static String flightKey(String normalizedCityName) {
+        return normalizedCityName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rulează tot pipeline-ul (AI + geocodare + Wikipedia) și salvează rezultatul în DB
+     */
+    private List<RecommandationDto> computeRecommandations(String normalizedCityName, RecommendationListener listener) {
+        return pipelineTimer.record(() -> runPipeline(normalizedCityName, listener));
+    }
+
+    /**
+     * Faza de rețea (AI + geocodare + Wikipedia) rulează fără nicio conexiune DB ocupată;
+     * orașul și recomandările sunt scrise abia la final, în faza scurtă de scriere (RecommendationWriter).
+     */
+    private List<RecommandationDto> runPipeline(String normalizedCityName, RecommendationListener listener) {
+        String simpleCityName = extractSimpleCityName(normalizedCityName);
+
+        // 1. Interogăm AI-ul pentru recomandări proaspete
+        // (cache-ul din DB a fost deja verificat în getRecommandations)
+        // În modul streaming geocodarea fiecărui loc pornește imediat ce AI-ul l-a terminat de scris
+        // Coordonatele orașului sunt căutate în paralel cu AI-ul: locurile găsite prea departe sunt eliminate
+        Future<double[]> cityLookup = geocodingExecutor.submit(RequestPriority.current().wrapCallable(
+                () -> geocodingService.getCityCoordinates(simpleCityName)));
+        Map<String, Future<double[]>> prefetched = new ConcurrentHashMap<>();
+        List<RecommandationDto> aiPopularPlaces = aiFetchTimer.record(() -> fetchMostPopularFromAI(simpleCityName,
+                place -> prefetchCoordinates(place, simpleCityName, prefetched)));
+
+        // 2. Verificăm existența reală și obținem coordonatele
+        double[] cityCoords = awaitCoordinates(cityLookup);
+        List<RecommandationDto> verifiedPlaces = verifyAndGetCoordinates(aiPopularPlaces, simpleCityName, cityCoords, prefetched, listener);
+
+        // 3. Îmbogățim cu date Wikipedia și SALVĂM în DB (pentru istoric/analiză viitoare)
+        // Căutăm date extra pe Wikipedia doar pentru atracții turistice, toate deodată
+        List<RecommandationDto> attractions = verifiedPlaces.stream()
+                .filter(dto -> "Tourist Attraction".equals(dto.category()))
+                .toList();
+        Map<String, WikipediaService.WikiData> wikiDataByName = wikipediaService.searchWikipediaData(attractions, simpleCityName, cityCoords);
 
-        // 4. Îmbogățim cu date Wikipedia și SALVĂM în DB (pentru istoric/analiză viitoare)
         List<RecommandationDto> finalResultList = new ArrayList<>();
 
         for (RecommandationDto dto : verifiedPlaces) {
@@ -71,35 +286,106 @@ public class RecommandationService {
             String imageUrl = null;
             String description = dto.description();
 
-            // Căutăm date extra pe Wikipedia doar pentru atracții turistice
-            if ("Tourist Attraction".equals(dto.category())) {
-                WikiData wikiData = searchWikipediaData(dto.name(), simpleCityName);
-                if (wikiData != null) {
-                    wikiLink = wikiData.url;
-                    imageUrl = wikiData.imageUrl;
-                    if (wikiData.extract != null && !wikiData.extract.isEmpty()) {
-                        description = wikiData.extract;
-                    }
+            WikipediaService.WikiData wikiData = wikiDataByName.get(dto.name());
+            if (wikiData != null) {
+                wikiLink = wikiData.url();
+                imageUrl = wikiData.imageUrl();
+                if (wikiData.extract() != null && !wikiData.extract().isEmpty()) {
+                    description = wikiData.extract();
                 }
             }
 
-            // SALVĂM în baza de date (sau actualizăm dacă există deja)
-            saveRecommendation(dto, city, wikiLink, imageUrl, description);
-
             // Adăugăm în lista finală ce va fi returnată utilizatorului
-            finalResultList.add(new RecommandationDto(
+            RecommandationDto enriched = new RecommandationDto(
                     dto.id(), dto.name(), dto.englishName(), description, dto.category(),
                     dto.lat(), dto.lon(), wikiLink, imageUrl
-            ));
+            );
+            finalResultList.add(enriched);
+            if (wikiData != null) listener.onPlaceEnriched(enriched);
         }
 
+        // SALVĂM în baza de date (sau actualizăm dacă există deja), toate odată
+        persistenceTimer.record(() -> saveRecommendations(normalizedCityName, finalResultList));
+
         return finalResultList;
     }
 
+    /**
+     * Verdictul pentru un oraș este cel mai slab verdict dintre categoriile salvate.
+     * Vârsta unei categorii este dată de cel mai recent rând al ei.
+     */
+    private Freshness evaluateFreshness(List<Recommendation> stored) {
+        Map<String, LocalDateTime> newestPerCategory = new LinkedHashMap<>();
+        for (Recommendation rec : stored) {
+            newestPerCategory.putIfAbsent(String.valueOf(rec.getCategory()), rec.getUpdatedAt());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Freshness result = Freshness.FRESH;
+        for (Map.Entry<String, LocalDateTime> entry : newestPerCategory.entrySet()) {
+            if (entry.getValue() == null) return Freshness.EXPIRED;
+
+            RecommendationCacheProperties.CategoryPolicy policy = cacheProperties.policyFor(entry.getKey());
+            Duration age = Duration.between(entry.getValue(), now);
+            if (age.compareTo(policy.getTtl()) <= 0) continue;
+            if (age.compareTo(policy.getTtl().plus(policy.getMaxStale())) <= 0) {
+                result = Freshness.STALE;
+            } else {
+                return Freshness.EXPIRED;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Construiește răspunsul din DB respectând aceleași limite per categorie ca pipeline-ul
+     */
+    private List<RecommandationDto> toCachedResult(List<Recommendation> stored) {
+        List<RecommandationDto> attractions = new ArrayList<>();
+        List<RecommandationDto> hotels = new ArrayList<>();
+        List<RecommandationDto> restaurants = new ArrayList<>();
+
+        for (Recommendation rec : stored) {
+            RecommandationDto dto = new RecommandationDto(
+                    rec.getId(), rec.getName(), rec.getEnglishName(), rec.getDescription(), rec.getCategory(),
+                    rec.getLatitude(), rec.getLongitude(), rec.getWikipediaLink(), rec.getImageUrl()
+            );
+            if ("Tourist Attraction".equals(rec.getCategory()) && attractions.size() < MAX_ATTRACTIONS) attractions.add(dto);
+            else if ("Hotel".equals(rec.getCategory()) && hotels.size() < MAX_HOTELS) hotels.add(dto);
+            else if ("Restaurant".equals(rec.getCategory()) && restaurants.size() < MAX_RESTAURANTS) restaurants.add(dto);
+        }
+
+        List<RecommandationDto> result = new ArrayList<>(attractions);
+        result.addAll(hotels);
+        result.addAll(restaurants);
+        return result;
+    }
+
+    private void scheduleRefresh(String normalizedCityName) {
+        String key = flightKey(normalizedCityName);
+        // Dacă pipeline-ul rulează deja pentru acest oraș, rezultatul lui va reîmprospăta datele
+        if (pipelineFlights.isRunning(key) || !refreshingCities.add(key)) return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // Reîmprospătarea nu are pe nimeni care să aștepte - cererile utilizatorilor trec înainte
+                    RequestPriority.BACKGROUND.run(() -> computeCoalesced(normalizedCityName, RecommendationListener.NONE));
+                } catch (Exception e) {
+                    System.err.println("Background refresh failed for " + normalizedCityName + ": " + e.getMessage());
+                } finally {
+                    refreshingCities.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Coada e plină - vom reîncerca la următoarea cerere pentru acest oraș
+            refreshingCities.remove(key);
+        }
+    }
+
     /**
      * AI-ul generează lista celor mai POPULARE și FAIMOASE locuri din oraș
      */
-    private List<RecommandationDto> fetchMostPopularFromAI(String cityName) {
+    private List<RecommandationDto> fetchMostPopularFromAI(String cityName, Consumer<RecommandationDto> onPlace) {
         String prompt = String.format(
                 "You are a travel expert. List the MOST POPULAR and FAMOUS places in %s that every tourist MUST visit.\n\n" +
                         "Provide EXACTLY:\n" +
@@ -117,125 +403,196 @@ public class RecommandationService {
                 cityName, MAX_ATTRACTIONS, MAX_HOTELS, MAX_RESTAURANTS
         );
 
-        return callGroqAI(prompt);
+        return callGroqAI(prompt, onPlace);
     }
 
     /**
      * Verifică fiecare loc cu Nominatim pentru a obține coordonate REALE
-     * Dacă locul nu există, îl excludem (nu e real)
+     * Dacă locul nu există sau este la peste 20 km de oraș (ex: găsit doar după nume, în alt oraș), îl excludem.
+     * cityCoords poate fi null (orașul nu a fost geocodat): atunci distanța nu mai este verificată.
+     * (package-private pentru benchmark-urile din src/jmh)
      */
-    private List<RecommandationDto> verifyAndGetCoordinates(List<RecommandationDto> aiPlaces, String cityName) {
+    List<RecommandationDto> verifyAndGetCoordinates(List<RecommandationDto> aiPlaces, String cityName, double[] cityCoords,
+                                                            Map<String, Future<double[]>> prefetched, RecommendationListener listener) {
         List<RecommandationDto> verified = new ArrayList<>();
         Set<String> addedNames = new HashSet<>();
+        Map<String, Integer> counts = new HashMap<>();
+        int dropped = 0;
+        long geocodingNanos = 0;
 
-        int attractionsCount = 0;
-        int hotelsCount = 0;
-        int restaurantsCount = 0;
-
-        for (RecommandationDto place : aiPlaces) {
-            // Verificăm limitele per categorie
-            if ("Tourist Attraction".equals(place.category()) && attractionsCount >= MAX_ATTRACTIONS) continue;
-            if ("Hotel".equals(place.category()) && hotelsCount >= MAX_HOTELS) continue;
-            if ("Restaurant".equals(place.category()) && restaurantsCount >= MAX_RESTAURANTS) continue;
-
-            // Verificăm duplicatele
-            if (addedNames.contains(place.name().toLowerCase())) continue;
-
-            // Obținem coordonatele reale de la Nominatim
-            double[] coords = getPlaceCoordinates(place.name(), cityName);
-
-            if (coords != null) {
-                verified.add(new RecommandationDto(
-                        null, place.name(), place.englishName(), place.description(),
-                        place.category(), coords[0], coords[1], null, null
-                ));
-                addedNames.add(place.name().toLowerCase());
-
-                // Incrementăm contorul pentru categoria respectivă
-                if ("Tourist Attraction".equals(place.category())) attractionsCount++;
-                else if ("Hotel".equals(place.category())) hotelsCount++;
-                else if ("Restaurant".equals(place.category())) restaurantsCount++;
+        try {
+            long start = System.nanoTime();
+            dropped += verifyInParallel(aiPlaces, cityName, cityCoords, null, verified, addedNames, counts, prefetched, listener);
+            geocodingNanos += System.nanoTime() - start;
+
+            // Dacă nu avem destule atracții, încercăm să completăm cu o a doua cerere AI
+            int attractionsCount = counts.getOrDefault("Tourist Attraction", 0);
+            if (attractionsCount < MAX_ATTRACTIONS) {
+                List<RecommandationDto> moreAttractions = additionalAttractionsTimer.record(() -> fetchAdditionalAttractions(
+                        cityName, addedNames, MAX_ATTRACTIONS - attractionsCount, place -> prefetchCoordinates(place, cityName, prefetched)));
+                start = System.nanoTime();
+                dropped += verifyInParallel(moreAttractions, cityName, cityCoords, "Tourist Attraction", verified, addedNames, counts, prefetched, listener);
+                geocodingNanos += System.nanoTime() - start;
             }
+        } finally {
+            // Căutările pornite în avans pentru locuri care nu au mai fost folosite
+            prefetched.values().forEach(lookup -> lookup.cancel(true));
         }
 
-        // Dacă nu avem destule atracții, încercăm să completăm cu o a doua cerere AI
-        if (attractionsCount < MAX_ATTRACTIONS) {
-            List<RecommandationDto> moreAttractions = fetchAdditionalAttractions(cityName, addedNames, MAX_ATTRACTIONS - attractionsCount);
-            for (RecommandationDto attr : moreAttractions) {
-                double[] coords = getPlaceCoordinates(attr.name(), cityName);
-                if (coords != null && !addedNames.contains(attr.name().toLowerCase())) {
-                    verified.add(new RecommandationDto(
-                            null, attr.name(), attr.englishName(), attr.description(),
-                            "Tourist Attraction", coords[0], coords[1], null, null
-                    ));
-                    addedNames.add(attr.name().toLowerCase());
-                }
-            }
-        }
+        // Timpul de geocodare nu include a doua cerere AI
+        geocodingTimer.record(geocodingNanos, TimeUnit.NANOSECONDS);
+        droppedPlaces.record(dropped);
 
         return verified;
     }
 
     /**
-     * Obține coordonatele unui loc folosind Nominatim API
+     * Pornește geocodarea unui loc încă din timpul răspunsului AI; verifyInParallel preia apoi rezultatul
      */
-    private double[] getPlaceCoordinates(String placeName, String cityName) {
-        try {
-            // Prima încercare: numele complet + oraș
-            String query = URLEncoder.encode(placeName + ", " + cityName, StandardCharsets.UTF_8);
-            String url = "https://nominatim.openstreetmap.org/search?q=" + query + "&format=json&limit=1";
-
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode results = objectMapper.readTree(response);
+    private void prefetchCoordinates(RecommandationDto place, String cityName, Map<String, Future<double[]>> prefetched) {
+        if (place == null || place.name() == null) return;
+        prefetched.computeIfAbsent(place.name().toLowerCase(), key -> geocodingExecutor.submit(RequestPriority.current().wrapCallable(
+                () -> geocodingService.getPlaceCoordinates(place.name(), cityName))));
+    }
 
-            if (results.size() > 0) {
-                double lat = results.get(0).path("lat").asDouble();
-                double lon = results.get(0).path("lon").asDouble();
-                return new double[]{lat, lon};
+    /**
+     * Pornește geocodarea tuturor candidaților în paralel, dar îi acceptă în ordinea dată de AI,
+     * astfel încât cotele per categorie și eliminarea duplicatelor se comportă ca varianta secvențială.
+     * Căutările rămase sunt anulate imediat ce toate cotele sunt completate.
+     * Locurile care nu au fost căutate din cauza cozii pline (UpstreamThrottledException) sunt reîncercate o dată
+     * la final, dacă mai este loc în cote.
+     * Returnează câte locuri au fost eliminate pentru că nu au fost găsite.
+     */
+    private int verifyInParallel(List<RecommandationDto> candidates, String cityName, double[] cityCoords, String forcedCategory,
+                                  List<RecommandationDto> verified, Set<String> addedNames, Map<String, Integer> counts,
+                                  Map<String, Future<double[]>> prefetched, RecommendationListener listener) {
+        List<RecommandationDto> pending = new ArrayList<>();
+        List<Future<double[]>> lookups = new ArrayList<>();
+        Set<String> scheduledNames = new HashSet<>(addedNames);
+        int dropped = 0;
+
+        for (RecommandationDto place : candidates) {
+            if (place == null || place.name() == null) continue;
+            String category = forcedCategory != null ? forcedCategory : place.category();
+            if (isQuotaFilled(category, counts)) continue;
+            if (!scheduledNames.add(place.name().toLowerCase())) continue;
+
+            pending.add(new RecommandationDto(
+                    null, place.name(), place.englishName(), place.description(), category, null, null, null, null
+            ));
+            Future<double[]> lookup = prefetched.remove(place.name().toLowerCase());
+            if (lookup == null) {
+                lookup = geocodingExecutor.submit(RequestPriority.current().wrapCallable(
+                        () -> geocodingService.getPlaceCoordinates(place.name(), cityName)));
             }
+            lookups.add(lookup);
+        }
 
-            // A doua încercare: doar numele
-            query = URLEncoder.encode(placeName, StandardCharsets.UTF_8);
-            url = "https://nominatim.openstreetmap.org/search?q=" + query + "&format=json&limit=1";
-            response = restTemplate.getForObject(url, String.class);
-            results = objectMapper.readTree(response);
+        List<RecommandationDto> throttled = new ArrayList<>();
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                RecommandationDto place = pending.get(i);
+                if (isQuotaFilled(place.category(), counts)) {
+                    lookups.get(i).cancel(true);
+                    continue;
+                }
 
-            if (results.size() > 0) {
-                double lat = results.get(0).path("lat").asDouble();
-                double lon = results.get(0).path("lon").asDouble();
-                return new double[]{lat, lon};
+                double[] coords;
+                try {
+                    coords = nearCity(awaitCoordinates(lookups.get(i)), cityCoords);
+                } catch (UpstreamScheduler.UpstreamThrottledException e) {
+                    throttled.add(place);
+                    continue;
+                }
+                if (coords == null) dropped++;
+                if (coords != null && accept(place, coords, verified, addedNames, counts, listener) && allQuotasFilled(counts)) break;
             }
 
-            // A treia încercare: Photon API
-            return getPlaceCoordinatesFromPhoton(placeName, cityName);
-
-        } catch (Exception e) {
-            return null;
+            // Reîncercare, una câte una, pentru locurile rămase în urma cozii pline
+            int stillThrottled = 0;
+            for (RecommandationDto place : throttled) {
+                if (allQuotasFilled(counts)) break;
+                if (isQuotaFilled(place.category(), counts)) continue;
+
+                Future<double[]> retry = geocodingExecutor.submit(RequestPriority.current().wrapCallable(
+                        () -> geocodingService.getPlaceCoordinates(place.name(), cityName)));
+                lookups.add(retry);
+                double[] coords;
+                try {
+                    coords = nearCity(awaitCoordinates(retry), cityCoords);
+                } catch (UpstreamScheduler.UpstreamThrottledException e) {
+                    stillThrottled++;
+                    continue;
+                }
+                if (coords == null) dropped++;
+                else accept(place, coords, verified, addedNames, counts, listener);
+            }
+            if (stillThrottled > 0) {
+                System.err.println("⏳ " + stillThrottled + " places in " + cityName + " skipped: geocoding queue full");
+                throttledPlaces.record(stillThrottled);
+            }
+        } finally {
+            // Nu mai avem nevoie de căutările rămase
+            lookups.forEach(lookup -> lookup.cancel(true));
         }
+        return dropped;
+    }
+
+    private boolean accept(RecommandationDto place, double[] coords, List<RecommandationDto> verified, Set<String> addedNames,
+                           Map<String, Integer> counts, RecommendationListener listener) {
+        if (!addedNames.add(place.name().toLowerCase())) return false;
+        RecommandationDto verifiedPlace = place.withCoordinates(coords[0], coords[1]);
+        verified.add(verifiedPlace);
+        listener.onPlaceVerified(verifiedPlace);
+        counts.merge(place.category(), 1, Integer::sum);
+        return true;
+    }
+
+    /**
+     * coords dacă sunt în raza orașului (sau orașul nu are coordonate), altfel null
+     */
+    private static double[] nearCity(double[] coords, double[] cityCoords) {
+        if (coords == null || cityCoords == null) return coords;
+        double distance = SpatialIndex.distanceMeters(cityCoords[0], cityCoords[1], coords[0], coords[1]);
+        return distance <= MAX_DISTANCE_FROM_CITY_METERS ? coords : null;
     }
 
     /**
-     * Fallback: folosește Photon API pentru coordonate
+     * null dacă locul nu a fost găsit sau căutarea a eșuat / a fost anulată;
+     * UpstreamThrottledException dacă serviciile nu au putut fi întrebate (coada proprie plină)
      */
-    private double[] getPlaceCoordinatesFromPhoton(String placeName, String cityName) {
+    private double[] awaitCoordinates(Future<double[]> lookup) {
         try {
-            String query = URLEncoder.encode(placeName + " " + cityName, StandardCharsets.UTF_8);
-            String url = "https://photon.komoot.io/api/?q=" + query + "&limit=1";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-
-            if (root.path("features").size() > 0) {
-                JsonNode coords = root.path("features").get(0).path("geometry").path("coordinates");
-                return new double[]{coords.get(1).asDouble(), coords.get(0).asDouble()};
-            }
-        } catch (Exception e) {}
-        return null;
+            return lookup.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UpstreamScheduler.UpstreamThrottledException throttled) throw throttled;
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    private boolean isQuotaFilled(String category, Map<String, Integer> counts) {
+        if ("Tourist Attraction".equals(category)) return counts.getOrDefault(category, 0) >= MAX_ATTRACTIONS;
+        if ("Hotel".equals(category)) return counts.getOrDefault(category, 0) >= MAX_HOTELS;
+        if ("Restaurant".equals(category)) return counts.getOrDefault(category, 0) >= MAX_RESTAURANTS;
+        return false;
+    }
+
+    private boolean allQuotasFilled(Map<String, Integer> counts) {
+        return isQuotaFilled("Tourist Attraction", counts)
+                && isQuotaFilled("Hotel", counts)
+                && isQuotaFilled("Restaurant", counts);
     }
 
     /**
      * Cere AI-ului mai multe atracții dacă primele nu au fost găsite
      */
-    private List<RecommandationDto> fetchAdditionalAttractions(String cityName, Set<String> excludeNames, int count) {
+    private List<RecommandationDto> fetchAdditionalAttractions(String cityName, Set<String> excludeNames, int count,
+                                                               Consumer<RecommandationDto> onPlace) {
         String excludeList = String.join(", ", excludeNames);
         String prompt = String.format(
                 "List %d MORE famous tourist attractions in %s. EXCLUDE these already listed: [%s].\n" +
@@ -244,7 +601,7 @@ public class RecommandationService {
                         "Return JSON: {\"recommendations\": [{\"name\": \"local name\", \"englishName\": \"English name\", \"description\": \"short description\", \"category\": \"Tourist Attraction\"}]}",
                 count + 5, cityName, excludeList
         );
-        return callGroqAI(prompt);
+        return callGroqAI(prompt, onPlace);
     }
 
     private String extractSimpleCityName(String fullName) {
@@ -252,126 +609,111 @@ public class RecommandationService {
         return fullName;
     }
 
-    private City saveCityIfNotExists(String cityName) {
-        return cityRepository.findAll().stream()
-                .filter(c -> c.getName().equalsIgnoreCase(cityName))
-                .findFirst()
-                .orElseGet(() -> cityRepository.save(new City(cityName)));
+    /**
+     * Salvează toate recomandările orașului într-un singur batch (insert sau update pe (city_id, name))
+     */
+    private void saveRecommendations(String cityName, List<RecommandationDto> recommendations) {
+        try {
+            recommendationWriter.save(cityName, recommendations);
+            spatialIndex.putAll(cityName, recommendations);
+        } catch (DataAccessException e) {
+            // Utilizatorul primește oricum recomandările; doar cache-ul nu a fost actualizat
+            System.err.println("Failed to save " + recommendations.size() + " recommendations for city " + cityName + ": " + e.getMessage());
+        }
     }
 
-    private void saveRecommendation(RecommandationDto dto, City city, String wikiLink, String imageUrl, String description) {
+    /**
+     * În modul streaming, onPlace primește fiecare loc imediat ce obiectul lui JSON s-a încheiat,
+     * iar dacă răspunsul a fost parsat complet în flux, lista este reutilizată fără a-l parsa din nou.
+     * (package-private pentru benchmark-urile din src/jmh)
+     */
+    List<RecommandationDto> callGroqAI(String prompt, Consumer<RecommandationDto> onPlace) {
         try {
-            Optional<Recommendation> existing = recommendationRepository.findByNameAndCityId(dto.name(), city.getId());
-            if (existing.isEmpty()) {
-                Recommendation rec = new Recommendation(
-                        dto.name(), description, dto.category(), wikiLink, imageUrl, dto.lat(), dto.lon(), city
-                );
-                recommendationRepository.save(rec);
-            } else {
-                Recommendation rec = existing.get();
-                rec.setWikipediaLink(wikiLink);
-                rec.setImageUrl(imageUrl);
-                rec.setDescription(description);
-                recommendationRepository.save(rec);
+            // Răspunsul ajunge în LlmResponseStore doar dacă din el a ieșit cel puțin un loc;
+            // lista parsată pentru verificare este refolosită mai jos
+            Map<String, List<RecommandationDto>> parsed = new HashMap<>(2);
+            if (groqClient.isStreaming()) {
+                RecommendationStreamParser parser = new RecommendationStreamParser(objectMapper, onPlace);
+                String jsonStr = groqClient.completeStreaming(prompt, 0.2, parser::feed, text -> !(parser.isComplete()
+                        ? parser.getPlaces() : parsed.computeIfAbsent(text, this::parseRecommendations)).isEmpty());
+                if (parser.isComplete()) return parser.getPlaces();
+                return parsed.computeIfAbsent(jsonStr, this::parseRecommendations);
             }
-        } catch (Exception e) {}
+            String jsonStr = groqClient.complete(prompt, 0.2, true,
+                    text -> !parsed.computeIfAbsent(text, this::parseRecommendations).isEmpty());
+            return parsed.computeIfAbsent(jsonStr, this::parseRecommendations);
+        } catch (Exception e) { return Collections.emptyList(); }
     }
 
-    private static class WikiData {
-        String url;
-        String imageUrl;
-        String extract;
-        public WikiData(String url, String imageUrl, String extract) {
-            this.url = url; this.imageUrl = imageUrl; this.extract = extract;
+    /**
+     * Textul din jurul obiectului (ex: ```json ... ```) este ignorat de parser; JSON invalid = listă goală
+     */
+    private List<RecommandationDto> parseRecommendations(String jsonStr) {
+        try {
+            return upstreamJson.recommendations(jsonStr);
+        } catch (IOException e) {
+            return Collections.emptyList();
         }
     }
 
-    private WikiData searchWikipediaData(String name, String city) {
-        try {
-            String title = performWikiSearch(name + " " + city, city);
-            if (title == null) {
-                title = performWikiSearch(name, city);
-            }
-
-            if (title != null) {
-                String detailsUrl = "https://ro.wikipedia.org/w/api.php?action=query&titles=" + URLEncoder.encode(title, StandardCharsets.UTF_8) + "&prop=pageimages|extracts&pithumbsize=400&exintro=1&explaintext=1&format=json";
-                String response = restTemplate.getForObject(detailsUrl, String.class);
-                JsonNode pages = objectMapper.readTree(response).path("query").path("pages");
-
-                if (pages.fieldNames().hasNext()) {
-                    JsonNode page = pages.get(pages.fieldNames().next());
-                    String imageUrl = page.path("thumbnail").path("source").asText(null);
-                    String extract = page.path("extract").asText(null);
-                    if (extract != null && extract.length() > 300) extract = extract.substring(0, 300) + "...";
-
-                    return new WikiData(
-                            "https://ro.wikipedia.org/wiki/" + URLEncoder.encode(title, StandardCharsets.UTF_8),
-                            imageUrl,
-                            extract
-                    );
-                }
-            }
-        } catch (Exception e) {}
-        return null;
+    public String getCityNotification(String cityName) { return "Welcome to " + cityName; }
+    
+    // MODIFICARE: Folosim AI-ul pentru a genera un mesaj personalizat și interesant
+    public String getLiveRecommendation(UserLocationDto location) {
+        return getLiveRecommendation(location, partial -> {});
     }
 
-    private String performWikiSearch(String query, String city) {
-        try {
-            String url = "https://ro.wikipedia.org/w/api.php?action=query&list=search&srsearch=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&format=json";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode results = objectMapper.readTree(response).path("query").path("search");
-
-            if (results.size() > 0) {
-                for (JsonNode res : results) {
-                    String title = res.path("title").asText();
-                    if (!title.equalsIgnoreCase(city)) return title;
-                }
-            }
-        } catch (Exception e) {}
-        return null;
-    }
+    /**
+     * onPartial primește textul generat până acum (doar când mesajul chiar este generat de Groq în modul streaming)
+     */
+    public String getLiveRecommendation(UserLocationDto requested, Consumer<String> onPartial) {
+        // Coordonatele din payload-ul WebSocket nu sunt validate de client: valorile imposibile sunt ignorate
+        UserLocationDto location = requested.latitude() != null && requested.longitude() != null
+                && !SpatialIndex.isValidCoordinate(requested.latitude(), requested.longitude())
+                ? new UserLocationDto(requested.city(), requested.locationName(), null, null)
+                : requested;
+
+        // Dacă avem deja un loc salvat în apropiere, răspundem direct din indexul spațial, fără Groq
+        if (location.latitude() != null && location.longitude() != null) {
+            List<NearbyPlaceDto> nearby = spatialIndex.nearby(location.latitude(), location.longitude(), LIVE_NEARBY_RADIUS_METERS, 1);
+            if (!nearby.isEmpty()) return formatNearbyNotification(nearby.get(0));
+        }
 
-    public double[] getCityCoordinates(String city) {
-        try {
-            String url = "https://photon.komoot.io/api/?q=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&limit=1";
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode root = objectMapper.readTree(response);
-            if (root.path("features").size() > 0) {
-                JsonNode coords = root.path("features").get(0).path("geometry").path("coordinates");
-                return new double[]{coords.get(1).asDouble(), coords.get(0).asDouble()};
-            }
-        } catch (Exception e) {}
-        return null;
+        // Mesajele generate deja pentru aceeași zonă (geohash) și același nume de locație
+        LiveNotificationCache.Lookup cached = liveNotificationCache.lookup(location.latitude(), location.longitude(), location.locationName());
+        if (cached.message() != null) {
+            if (cached.needsMore()) fillLiveNotificationPool(cached.key(), location);
+            return cached.message();
+        }
+
+        // Celulă rece: un singur apel Groq chiar dacă mai mulți utilizatori ajung simultan în aceeași zonă
+        String generated = liveFlights.execute(cached.key(), () -> {
+            String message = generateLiveNotification(location, onPartial);
+            if (message != null) liveNotificationCache.put(cached.key(), message);
+            return message;
+        });
+        return generated != null ? generated : "Explore the hidden gems around " + location.locationName() + "!";
     }
 
-    private List<RecommandationDto> callGroqAI(String prompt) {
-        String apiUrl = "https://api.groq.com/openai/v1/chat/completions";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(this.groqApiKey);
-        ObjectNode requestBody = objectMapper.createObjectNode();
-        requestBody.put("model", this.groqModel);
-        requestBody.put("temperature", 0.2);
-        ArrayNode messages = requestBody.putArray("messages");
-        messages.addObject().put("role", "user").put("content", prompt);
+    /**
+     * Generează încă un mesaj pentru grupul celulei, în fundal (utilizatorul a primit deja unul din cache)
+     */
+    private void fillLiveNotificationPool(String key, UserLocationDto location) {
         try {
-            requestBody.putObject("response_format").put("type", "json_object");
-            HttpEntity<String> entity = new HttpEntity<>(requestBody.toString(), headers);
-            String response = restTemplate.postForObject(apiUrl, entity, String.class);
-            JsonNode content = objectMapper.readTree(response).path("choices").get(0).path("message").path("content");
-            String jsonStr = content.isObject() ? content.toString() : content.asText();
-            if (jsonStr.contains("```json")) jsonStr = jsonStr.replace("```json", "").replace("```", "");
-            int firstBrace = jsonStr.indexOf("{");
-            int lastBrace = jsonStr.lastIndexOf("}");
-            if (firstBrace != -1 && lastBrace != -1) jsonStr = jsonStr.substring(firstBrace, lastBrace + 1);
-            return objectMapper.convertValue(objectMapper.readTree(jsonStr).path("recommendations"), new TypeReference<List<RecommandationDto>>() {});
-        } catch (Exception e) { return Collections.emptyList(); }
+            refreshExecutor.execute(() -> {
+                String message = RequestPriority.BACKGROUND.call(() -> generateLiveNotification(location, partial -> {}));
+                if (message != null) liveNotificationCache.put(key, message);
+                else liveNotificationCache.fillFailed(key);
+            });
+        } catch (TaskRejectedException e) {
+            liveNotificationCache.fillFailed(key);
+        }
     }
 
-    public String getCityNotification(String cityName) { return "Welcome to " + cityName; }
-    
-    // MODIFICARE: Folosim AI-ul pentru a genera un mesaj personalizat și interesant
-    public String getLiveRecommendation(UserLocationDto location) {
+    /**
+     * Apelul Groq pentru notificarea live; null dacă apelul a eșuat
+     */
+    private String generateLiveNotification(UserLocationDto location, Consumer<String> onPartial) {
         String prompt = String.format(
             "You are a local travel guide. The user is currently at coordinates (lat: %f, lon: %f) near '%s' in '%s'.\n" +
             "Generate a SHORT, EXCITING, and REAL-TIME notification (max 1 sentence) suggesting a nearby hidden gem, a fun fact about the location, or a quick activity.\n" +
@@ -380,25 +722,40 @@ public class RecommandationService {
             location.latitude(), location.longitude(), location.locationName(), location.city()
         );
         
+        double temperature = 0.7; // Mai creativ
+        // Fără LlmResponseStore: completarea grupului de mesaje din LiveNotificationCache are nevoie de texte diferite
+        // pentru același prompt, iar un răspuns salvat ar fi întors identic la fiecare apel
         try {
-            // Reutilizăm logica de apelare Groq, dar adaptată pentru un singur string
-            String apiUrl = "https://api.groq.com/openai/v1/chat/completions";
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(this.groqApiKey);
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", this.groqModel);
-            requestBody.put("temperature", 0.7); // Mai creativ
-            ArrayNode messages = requestBody.putArray("messages");
-            messages.addObject().put("role", "user").put("content", prompt);
-            
-            HttpEntity<String> entity = new HttpEntity<>(requestBody.toString(), headers);
-            String response = restTemplate.postForObject(apiUrl, entity, String.class);
-            JsonNode content = objectMapper.readTree(response).path("choices").get(0).path("message").path("content");
-            
-            return content.asText().replace("\"", "").trim();
+            String text;
+            if (groqClient.isStreaming()) {
+                StringBuilder soFar = new StringBuilder();
+                text = groqClient.completeStreamingUnstored(prompt, temperature, delta -> {
+                    soFar.append(delta);
+                    onPartial.accept(cleanLiveText(soFar.toString()));
+                });
+            } else {
+                text = groqClient.completeUnstored(prompt, temperature, false);
+            }
+            return cleanLiveText(text);
         } catch (Exception e) {
-            return "Explore the hidden gems around " + location.locationName() + "!";
+            return null;
+        }
+    }
+
+    private static String cleanLiveText(String text) {
+        return text.replace("\"", "").trim();
+    }
+
+    private String formatNearbyNotification(NearbyPlaceDto nearby) {
+        RecommandationDto place = nearby.place();
+        String message = "📍 " + place.name() + " is just " + Math.round(nearby.distanceMeters()) + " m away!";
+        String description = place.description();
+        if (description != null && !description.isBlank()) {
+            int sentenceEnd = description.indexOf(". ");
+            String firstSentence = sentenceEnd > 0 ? description.substring(0, sentenceEnd + 1) : description;
+            if (firstSentence.length() > 160) firstSentence = firstSentence.substring(0, 160) + "...";
+            message += " " + firstSentence;
         }
+        return message;
     }
 }
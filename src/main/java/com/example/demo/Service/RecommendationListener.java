@@ -0,0 +1,18 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+
+/**
+ * Primește rezultatele pipeline-ului pe măsură ce apar (folosit pentru streaming către client).
+ * Metodele sunt apelate din thread-ul care rulează pipeline-ul.
+ */
+public interface RecommendationListener {
+
+    RecommendationListener NONE = new RecommendationListener() {};
+
+    // Locul a trecut de geocodare - are deja coordonatele finale
+    default void onPlaceVerified(RecommandationDto place) {}
+
+    // Locul a primit datele de pe Wikipedia (link, imagine, descriere)
+    default void onPlaceEnriched(RecommandationDto place) {}
+}
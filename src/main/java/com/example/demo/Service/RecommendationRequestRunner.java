@@ -0,0 +1,88 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rulează pipeline-ul de recomandări pentru cererile HTTP în afara thread-urilor Tomcat
+ * (pe recommendationRequestExecutor), cu timeout per cerere.
+ * La timeout, răspunsul conține locurile verificate până atunci (partial = true), inclusiv când cererea
+ * s-a alăturat unei rulări pornite de altă cerere pentru același oraș; pipeline-ul continuă
+ * în fundal și salvează rezultatul complet în cache pentru cererile următoare.
+ */
+@Service
+public class RecommendationRequestRunner {
+
+    // Header-ul prin care clientul află că lista este incompletă
+    public static final String PARTIAL_HEADER = "X-Recommendations-Partial";
+
+    public record Result(List<RecommandationDto> recommendations, boolean partial) {}
+
+    private final RecommandationService recommandationService;
+    private final ExecutorService requestExecutor;
+    private final Duration timeout;
+
+    public RecommendationRequestRunner(RecommandationService recommandationService,
+                                       @Qualifier("recommendationRequestExecutor") ExecutorService requestExecutor,
+                                       @Value("${recommendation.request.timeout:20s}") Duration timeout) {
+        this.recommandationService = recommandationService;
+        this.requestExecutor = requestExecutor;
+        this.timeout = timeout;
+    }
+
+    public CompletableFuture<Result> run(String cityName) {
+        // Ultima variantă a fiecărui loc (verificat, apoi îmbogățit), în ordinea în care au apărut
+        Map<String, RecommandationDto> soFar = new LinkedHashMap<>();
+        RecommendationListener collector = new RecommendationListener() {
+            @Override
+            public void onPlaceVerified(RecommandationDto place) {
+                synchronized (soFar) {
+                    soFar.put(place.name(), place);
+                }
+            }
+
+            @Override
+            public void onPlaceEnriched(RecommandationDto place) {
+                synchronized (soFar) {
+                    soFar.put(place.name(), place);
+                }
+            }
+        };
+
+        CompletableFuture<Result> pipeline;
+        try {
+            pipeline = CompletableFuture.supplyAsync(
+                    () -> new Result(recommandationService.getRecommandations(cityName, collector), false), requestExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many recommendation requests"));
+        }
+
+        return pipeline
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof TimeoutException)) throw new CompletionException(cause);
+
+                    System.err.println("Recommendations for " + cityName + " timed out after " + timeout.toMillis() + " ms, returning partial result");
+                    synchronized (soFar) {
+                        return new Result(new ArrayList<>(soFar.values()), true);
+                    }
+                });
+    }
+}
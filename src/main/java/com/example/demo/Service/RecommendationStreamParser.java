@@ -0,0 +1,114 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parsează incremental răspunsul AI {"recommendations": [{...}, {...}]} pe măsură ce sosesc fragmentele
+ * de text: fiecare obiect din listă este trimis la onPlace imediat ce s-a închis, înainte de finalul răspunsului.
+ * Textul dinaintea primei acolade (ex: ```json) este ignorat. La o eroare de sintaxă parsarea se oprește,
+ * iar apelantul parsează din nou răspunsul complet; altfel getPlaces() este deja lista finală.
+ */
+public class RecommendationStreamParser {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<RecommandationDto> onPlace;
+    private JsonParser parser;
+    private ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean stopped;
+    private int depth;
+    private boolean nextArrayIsRecommendations;
+    private int recommendationsDepth = -1;
+    private TokenBuffer current;
+    private final List<RecommandationDto> places = new ArrayList<>();
+    private boolean complete;
+
+    public RecommendationStreamParser(ObjectMapper objectMapper, Consumer<RecommandationDto> onPlace) {
+        this.objectMapper = objectMapper;
+        this.onPlace = onPlace;
+    }
+
+    public void feed(String fragment) {
+        if (stopped) return;
+        if (!started) {
+            int brace = fragment.indexOf('{');
+            if (brace < 0) return;
+            fragment = fragment.substring(brace);
+            started = true;
+        }
+
+        try {
+            if (parser == null) {
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+                feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            }
+            byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+
+            JsonToken token;
+            while (!stopped && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (Exception e) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * true dacă obiectul rădăcină s-a încheiat fără erori de sintaxă
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<RecommandationDto> getPlaces() {
+        return places;
+    }
+
+    private void handle(JsonToken token) throws Exception {
+        if (current != null) {
+            current.copyCurrentEvent(parser);
+        }
+
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                depth++;
+                if (token == JsonToken.START_ARRAY && nextArrayIsRecommendations) {
+                    recommendationsDepth = depth;
+                } else if (token == JsonToken.START_OBJECT && current == null && depth == recommendationsDepth + 1 && recommendationsDepth > 0) {
+                    current = new TokenBuffer(parser);
+                    current.copyCurrentEvent(parser);
+                }
+                nextArrayIsRecommendations = false;
+            }
+            case END_OBJECT, END_ARRAY -> {
+                if (token == JsonToken.END_OBJECT && current != null && depth == recommendationsDepth + 1) {
+                    RecommandationDto place = objectMapper.readValue(current.asParser(objectMapper), RecommandationDto.class);
+                    current = null;
+                    places.add(place);
+                    onPlace.accept(place);
+                }
+                if (token == JsonToken.END_ARRAY && depth == recommendationsDepth) recommendationsDepth = -1;
+                depth--;
+                // Obiectul rădăcină s-a închis - restul textului (ex: ```) nu ne interesează
+                if (depth == 0) {
+                    stopped = true;
+                    complete = true;
+                }
+            }
+            case FIELD_NAME -> nextArrayIsRecommendations = depth == 1 && "recommendations".equals(parser.currentName());
+            default -> nextArrayIsRecommendations = false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Entity.City;
+import com.example.demo.Entity.Recommendation;
+import com.example.demo.Repository.RecommendationRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Faza de scriere a pipeline-ului de recomandări, rulată doar după ce toate apelurile externe s-au terminat.
+ * Nu există persistence context deschis pe durata cererii (spring.jpa.open-in-view=false), deci o conexiune
+ * din pool este ocupată doar cât durează rezolvarea orașului și tranzacția batch-ului de upsert.
+ */
+@Service
+public class RecommendationWriter {
+
+    private final CityLookupService cityLookupService;
+    private final RecommendationRepository recommendationRepository;
+
+    public RecommendationWriter(CityLookupService cityLookupService, RecommendationRepository recommendationRepository) {
+        this.cityLookupService = cityLookupService;
+        this.recommendationRepository = recommendationRepository;
+    }
+
+    /**
+     * Creează orașul dacă nu există și salvează recomandările lui (insert sau update pe (city_id, name)).
+     * Orașul este rezolvat în tranzacția lui scurtă: dacă altă cerere îl inserează simultan, eroarea de unicitate
+     * nu trebuie să marcheze pentru rollback și tranzacția recomandărilor.
+     */
+    public City save(String cityName, List<RecommandationDto> recommendations) {
+        City city = cityLookupService.resolveOrCreate(cityName);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Recommendation> rows = new ArrayList<>();
+        for (RecommandationDto dto : recommendations) {
+            Recommendation rec = new Recommendation(
+                    dto.name(), dto.description(), dto.category(), dto.wikipediaLink(), dto.imageUrl(), dto.lat(), dto.lon(), city
+            );
+            rec.setEnglishName(dto.englishName());
+            rec.setUpdatedAt(now);
+            rows.add(rec);
+        }
+
+        recommendationRepository.upsertAll(city.getId(), rows);
+        return city;
+    }
+}
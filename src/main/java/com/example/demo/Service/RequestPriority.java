@@ -0,0 +1,59 @@
+package com.example.demo.Service;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Prioritatea apelurilor externe făcute de thread-ul curent.
+ * Cererile utilizatorilor (INTERACTIVE) trec prin UpstreamScheduler înaintea lucrului din fundal
+ * (reîmprospătarea cache-ului, pre-încălzirea orașelor).
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Rulează lucrul cu această prioritate pe thread-ul curent
+     */
+    public <T> T call(Supplier<T> work) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Păstrează prioritatea apelantului pentru un task trimis pe alt thread (executor)
+     */
+    public <T> Callable<T> wrapCallable(Callable<T> task) {
+        return () -> {
+            RequestPriority previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        return () -> call(task);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.NearbyPlaceDto;
+import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Entity.Recommendation;
+import com.example.demo.Repository.RecommendationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index spațial în memorie peste toate recomandările salvate care au coordonate.
+ * Grilă de celule de CELL_DEGREES x CELL_DEGREES grade (~1 km); o căutare după rază citește doar
+ * celulele care acoperă cercul, deci răspunde în microsecunde, fără DB și fără Groq.
+ * Încărcat la pornire și actualizat la fiecare salvare (RecommandationService.saveRecommendations).
+ */
+@Component
+public class SpatialIndex {
+
+    private static final double CELL_DEGREES = 0.01;
+    private static final double METERS_PER_DEGREE_LAT = 111_320;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    // Raza maximă acceptată - limitează numărul de celule citite la o căutare
+    public static final double MAX_RADIUS_METERS = 20_000;
+
+    private record IndexedPlace(String key, long cell, String city, RecommandationDto place) {}
+
+    private final RecommendationRepository recommendationRepository;
+
+    // celulă -> (cheie loc -> loc); cheia este aceeași ca în DB: oraș + nume
+    private final Map<Long, Map<String, IndexedPlace>> cells = new ConcurrentHashMap<>();
+    private final Map<String, IndexedPlace> byKey = new ConcurrentHashMap<>();
+
+    public SpatialIndex(RecommendationRepository recommendationRepository) {
+        this.recommendationRepository = recommendationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        List<Recommendation> stored = recommendationRepository.findAllWithCoordinates();
+        for (Recommendation rec : stored) {
+            put(rec.getCity().getName(), new RecommandationDto(
+                    rec.getId(), rec.getName(), rec.getEnglishName(), rec.getDescription(), rec.getCategory(),
+                    rec.getLatitude(), rec.getLongitude(), rec.getWikipediaLink(), rec.getImageUrl()
+            ));
+        }
+        System.out.println("📍 Spatial index loaded: " + byKey.size() + " places in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Adaugă sau actualizează locurile unui oraș (locurile fără coordonate sunt ignorate)
+     */
+    public void putAll(String cityName, List<RecommandationDto> places) {
+        for (RecommandationDto place : places) put(cityName, place);
+    }
+
+    /**
+     * Coordonate reale: valori finite, lat în [-90, 90], lon în [-180, 180]
+     */
+    public static boolean isValidCoordinate(double lat, double lon) {
+        return Double.isFinite(lat) && Double.isFinite(lon) && Math.abs(lat) <= 90 && Math.abs(lon) <= 180;
+    }
+
+    /**
+     * Cele mai apropiate cel mult "limit" locuri aflate la cel mult "radiusMeters", ordonate după distanță.
+     * Pentru coordonate sau rază invalide rezultatul este gol.
+     */
+    public List<NearbyPlaceDto> nearby(double lat, double lon, double radiusMeters, int limit) {
+        if (!isValidCoordinate(lat, lon) || !(radiusMeters >= 0) || limit <= 0) return new ArrayList<>();
+
+        double radius = Math.min(radiusMeters, MAX_RADIUS_METERS);
+        double deltaLat = radius / METERS_PER_DEGREE_LAT;
+        double deltaLon = radius / (METERS_PER_DEGREE_LAT * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+
+        // Intervalul de celule este limitat la glob, deci numărul de celule citite rămâne mic și la poli
+        long minLatCell = Math.max(cellOf(lat - deltaLat), cellOf(-90));
+        long maxLatCell = Math.min(cellOf(lat + deltaLat), cellOf(90));
+        long minLonCell = Math.max(cellOf(lon - deltaLon), cellOf(-180));
+        long maxLonCell = Math.min(cellOf(lon + deltaLon), cellOf(180));
+
+        List<NearbyPlaceDto> found = new ArrayList<>();
+        for (long latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (long lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                Map<String, IndexedPlace> cell = cells.get(cellKey((int) latCell, (int) lonCell));
+                if (cell == null) continue;
+                for (IndexedPlace indexed : cell.values()) {
+                    double distance = distanceMeters(lat, lon, indexed.place().lat(), indexed.place().lon());
+                    if (distance <= radius) found.add(new NearbyPlaceDto(indexed.place(), indexed.city(), distance));
+                }
+            }
+        }
+
+        found.sort(Comparator.comparingDouble(NearbyPlaceDto::distanceMeters));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    private synchronized void put(String cityName, RecommandationDto place) {
+        if (place.lat() == null || place.lon() == null || place.name() == null) return;
+        if (!isValidCoordinate(place.lat(), place.lon())) return;
+
+        String key = cityName.toLowerCase(Locale.ROOT) + "|" + place.name().toLowerCase(Locale.ROOT);
+        long cell = cellKey(cellOf(place.lat()), cellOf(place.lon()));
+        IndexedPlace indexed = new IndexedPlace(key, cell, cityName, place);
+
+        IndexedPlace previous = byKey.put(key, indexed);
+        if (previous != null && previous.cell() != cell) {
+            Map<String, IndexedPlace> oldCell = cells.get(previous.cell());
+            if (oldCell != null) oldCell.remove(key);
+        }
+        cells.computeIfAbsent(cell, c -> new ConcurrentHashMap<>()).put(key, indexed);
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    // Formula haversine
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+    }
+}
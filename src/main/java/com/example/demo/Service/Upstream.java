@@ -0,0 +1,23 @@
+package com.example.demo.Service;
+
+/**
+ * Serviciile externe apelate de aplicație. Cheia este folosită în application.properties
+ * (ex: upstream.hosts.nominatim.read-timeout=5s).
+ */
+public enum Upstream {
+    GROQ("groq", "https://api.groq.com"),
+    NOMINATIM("nominatim", "https://nominatim.openstreetmap.org"),
+    PHOTON("photon", "https://photon.komoot.io"),
+    WIKIPEDIA("wikipedia", "https://ro.wikipedia.org");
+
+    private final String key;
+    private final String defaultBaseUrl;
+
+    Upstream(String key, String defaultBaseUrl) {
+        this.key = key;
+        this.defaultBaseUrl = defaultBaseUrl;
+    }
+
+    public String getKey() { return key; }
+    public String getDefaultBaseUrl() { return defaultBaseUrl; }
+}
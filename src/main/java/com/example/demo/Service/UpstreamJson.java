@@ -0,0 +1,269 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parsarea răspunsurilor externe cu JsonParser (streaming): citim doar câmpurile de care avem nevoie,
+ * fără să construim arborele JsonNode pentru tot răspunsul; restul valorilor sunt sărite cu skipChildren().
+ * Metodele returnează null (sau o colecție goală) dacă structura nu este cea așteptată.
+ */
+class UpstreamJson {
+
+    /**
+     * Pagina Wikipedia: imaginea, extrasul și coordonatele principale (lat/lon null dacă pagina nu are)
+     */
+    record WikiPage(String imageUrl, String extract, Double lat, Double lon) {}
+
+    /**
+     * Paginile după titlul real + normalizările făcute de MediaWiki (titlu cerut -> titlu real)
+     */
+    record WikiPages(Map<String, WikiPage> byTitle, Map<String, String> normalized) {}
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory factory;
+
+    UpstreamJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.factory = objectMapper.getFactory();
+    }
+
+    /**
+     * Groq: choices[0].{messageField}.content ("message" pentru răspunsul complet, "delta" pentru un fragment SSE)
+     * și choices[0].finish_reason ("stop" = răspuns încheiat normal, "length" = tăiat la max_tokens, null în fragmentele intermediare)
+     */
+    record Completion(String content, String finishReason) {}
+
+    Completion completion(String response, String messageField) throws IOException {
+        try (JsonParser parser = factory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "choices") || parser.nextToken() != JsonToken.START_ARRAY) return null;
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            String content = null;
+            String finishReason = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (messageField.equals(name) && value == JsonToken.START_OBJECT) content = messageContent(parser);
+                else if ("finish_reason".equals(name)) finishReason = parser.getValueAsString();
+                else parser.skipChildren();
+            }
+            return new Completion(content, finishReason);
+        }
+    }
+
+    private String messageContent(JsonParser parser) throws IOException {
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"content".equals(name)) {
+                parser.skipChildren();
+            } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                // Unele modele pun obiectul JSON direct în content, nu ca text
+                content = objectMapper.readTree(parser).toString();
+            } else if (value != JsonToken.VALUE_NULL) {
+                content = parser.getText();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Conținutul generat de AI {"recommendations": [...]}, deserializat direct în RecommandationDto.
+     * Textul dinaintea primei acolade (ex: ```json) și cel de după obiectul rădăcină sunt ignorate.
+     */
+    List<RecommandationDto> recommendations(String content) throws IOException {
+        int start = content.indexOf('{');
+        if (start < 0) return List.of();
+
+        StringReader reader = new StringReader(content);
+        reader.skip(start);
+        List<RecommandationDto> places = new ArrayList<>();
+        try (JsonParser parser = factory.createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return places;
+            if (!moveToField(parser, "recommendations") || parser.nextToken() != JsonToken.START_ARRAY) return places;
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    places.add(objectMapper.readValue(parser, RecommandationDto.class));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return places;
+    }
+
+    /**
+     * Nominatim: [{"lat": "..", "lon": "..", ...}] - coordonatele primului rezultat
+     */
+    double[] nominatimFirstResult(String response) throws IOException {
+        try (JsonParser parser = factory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY || parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            Double lat = null;
+            Double lon = null;
+            while ((lat == null || lon == null) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if ("lat".equals(name)) lat = parser.getValueAsDouble();
+                else if ("lon".equals(name)) lon = parser.getValueAsDouble();
+                else parser.skipChildren();
+            }
+            return lat != null && lon != null ? new double[]{lat, lon} : null;
+        }
+    }
+
+    /**
+     * Photon: {"features": [{"geometry": {"coordinates": [lon, lat]}}]} - coordonatele primului rezultat
+     */
+    double[] photonFirstResult(String response) throws IOException {
+        try (JsonParser parser = factory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "features") || parser.nextToken() != JsonToken.START_ARRAY) return null;
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "geometry") || parser.nextToken() != JsonToken.START_OBJECT) return null;
+            if (!moveToField(parser, "coordinates") || parser.nextToken() != JsonToken.START_ARRAY) return null;
+
+            if (!parser.nextToken().isNumeric()) return null;
+            double lon = parser.getDoubleValue();
+            if (!parser.nextToken().isNumeric()) return null;
+            double lat = parser.getDoubleValue();
+            return new double[]{lat, lon};
+        }
+    }
+
+    /**
+     * Wikipedia list=search: primele limit titluri din query.search, în ordine, fără excludedTitle (numele orașului)
+     */
+    List<String> searchTitles(String response, String excludedTitle, int limit) throws IOException {
+        List<String> titles = new ArrayList<>();
+        try (JsonParser parser = factory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return titles;
+            if (!moveToField(parser, "query") || parser.nextToken() != JsonToken.START_OBJECT) return titles;
+            if (!moveToField(parser, "search") || parser.nextToken() != JsonToken.START_ARRAY) return titles;
+
+            JsonToken token;
+            while (titles.size() < limit && (token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String title = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    if ("title".equals(name)) title = parser.getValueAsString();
+                    else parser.skipChildren();
+                }
+                if (title != null && !title.equalsIgnoreCase(excludedTitle)) titles.add(title);
+            }
+            return titles;
+        }
+    }
+
+    /**
+     * Wikipedia prop=pageimages|extracts: query.pages (după pageid) și query.normalized
+     */
+    WikiPages wikiPages(String response) throws IOException {
+        Map<String, WikiPage> byTitle = new HashMap<>();
+        Map<String, String> normalized = new HashMap<>();
+        try (JsonParser parser = factory.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return new WikiPages(byTitle, normalized);
+            if (!moveToField(parser, "query") || parser.nextToken() != JsonToken.START_OBJECT) return new WikiPages(byTitle, normalized);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("pages".equals(section) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        if (parser.nextToken() == JsonToken.START_OBJECT) readPage(parser, byTitle);
+                        else parser.skipChildren();
+                    }
+                } else if ("normalized".equals(section) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        String from = null;
+                        String to = null;
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String name = parser.currentName();
+                            parser.nextToken();
+                            if ("from".equals(name)) from = parser.getValueAsString();
+                            else if ("to".equals(name)) to = parser.getValueAsString();
+                            else parser.skipChildren();
+                        }
+                        if (from != null && to != null) normalized.put(from, to);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new WikiPages(byTitle, normalized);
+    }
+
+    private void readPage(JsonParser parser, Map<String, WikiPage> byTitle) throws IOException {
+        String title = null;
+        String imageUrl = null;
+        String extract = null;
+        Double lat = null;
+        Double lon = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("title".equals(name)) {
+                title = parser.getValueAsString();
+            } else if ("extract".equals(name)) {
+                extract = parser.getValueAsString();
+            } else if ("coordinates".equals(name) && value == JsonToken.START_ARRAY) {
+                // Doar primul punct (cel principal), restul sunt sărite
+                boolean first = true;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        JsonToken coordinate = parser.nextToken();
+                        if (first && "lat".equals(field) && coordinate.isNumeric()) lat = parser.getDoubleValue();
+                        else if (first && "lon".equals(field) && coordinate.isNumeric()) lon = parser.getDoubleValue();
+                        else parser.skipChildren();
+                    }
+                    first = false;
+                }
+            } else if ("thumbnail".equals(name) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("source".equals(field)) imageUrl = parser.getValueAsString();
+                    else parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (title != null) byTitle.put(title, new WikiPage(imageUrl, extract, lat, lon));
+    }
+
+    /**
+     * Parserul este pe START_OBJECT: avansează până la câmpul cerut (sărind valorile celorlalte câmpuri).
+     * true dacă l-a găsit - următorul nextToken() este valoarea lui.
+     */
+    private static boolean moveToField(JsonParser parser, String field) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (field.equals(parser.currentName())) return true;
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
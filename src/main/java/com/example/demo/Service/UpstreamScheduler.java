@@ -0,0 +1,238 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.UpstreamProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Programatorul cererilor externe: câte un token bucket pentru fiecare serviciu (ex: Nominatim permite
+ * ~1 cerere/secundă). Cererile așteaptă la coadă în ordinea priorității (INTERACTIVE înaintea BACKGROUND),
+ * iar un răspuns 429/503 cu Retry-After oprește temporar tot serviciul.
+ */
+@Component
+public class UpstreamScheduler {
+
+    private final Map<Upstream, Lane> lanes = new EnumMap<>(Upstream.class);
+    private final Duration maxQueueWait;
+
+    public UpstreamScheduler(UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.maxQueueWait = properties.getMaxQueueWait();
+        for (Upstream upstream : Upstream.values()) {
+            UpstreamProperties.Host host = properties.forUpstream(upstream);
+            Lane lane = new Lane(upstream, host.getRequestsPerSecond(), host.getBurst(), meterRegistry);
+            lanes.put(upstream, lane);
+            registerMetrics(upstream, lane, meterRegistry);
+            lane.start();
+        }
+    }
+
+    /**
+     * Cererile în așteptare pe priorități, cele servite / refuzate (timeout) / date înapoi și pauzele cerute de serviciu;
+     * timpul de așteptare la coadă este timer-ul "upstream.scheduler.wait"
+     */
+    private static void registerMetrics(Upstream upstream, Lane lane, MeterRegistry meterRegistry) {
+        String key = upstream.getKey();
+        for (RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder("upstream.scheduler.queued", lane, l -> l.queued(priority))
+                    .tag("upstream", key)
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("upstream.scheduler.tickets", lane.granted, LongAdder::sum)
+                .tag("upstream", key).tag("outcome", "granted").register(meterRegistry);
+        FunctionCounter.builder("upstream.scheduler.tickets", lane.rejected, LongAdder::sum)
+                .tag("upstream", key).tag("outcome", "rejected").register(meterRegistry);
+        FunctionCounter.builder("upstream.scheduler.tickets", lane.refunded, LongAdder::sum)
+                .tag("upstream", key).tag("outcome", "refunded").register(meterRegistry);
+        FunctionCounter.builder("upstream.scheduler.pauses", lane.pauses, LongAdder::sum)
+                .tag("upstream", key).register(meterRegistry);
+    }
+
+    /**
+     * Blochează thread-ul curent până când serviciul poate primi încă o cerere.
+     * Aruncă UpstreamThrottledException dacă așteptarea depășește upstream.max-queue-wait.
+     * Un tichet abandonat (timeout sau thread întrerupt, ex: cancel(true) pe o geocodare pierdută în cursa HEDGED)
+     * este scos din coadă; dacă primise deja token-ul, acesta este dat înapoi serviciului.
+     */
+    public void acquire(Upstream upstream, RequestPriority priority) throws InterruptedException {
+        Lane lane = lanes.get(upstream);
+        Ticket ticket = new Ticket(priority, lane.sequence.incrementAndGet());
+        lane.queue.add(ticket);
+
+        boolean granted;
+        try {
+            granted = ticket.granted.await(maxQueueWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            if (ticket.abandon()) lane.queue.remove(ticket);
+            else lane.refund();
+            throw e;
+        }
+
+        // Token-ul poate sosi exact când expiră timeout-ul - atunci îl folosim
+        if (!granted && ticket.abandon()) {
+            lane.queue.remove(ticket);
+            lane.rejected.increment();
+            throw new UpstreamThrottledException("Timed out waiting " + maxQueueWait.toMillis() + " ms for a " + upstream.getKey() + " request slot");
+        }
+    }
+
+    /**
+     * Nicio cerere nu mai pleacă spre serviciu până la expirarea intervalului (header Retry-After)
+     */
+    public void pause(Upstream upstream, Duration duration) {
+        Lane lane = lanes.get(upstream);
+        long until = System.nanoTime() + duration.toNanos();
+        lane.pausedUntil.accumulateAndGet(until, Math::max);
+        lane.pauses.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.dispatcher.interrupt());
+    }
+
+    public static class UpstreamThrottledException extends RestClientException {
+        public UpstreamThrottledException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Ticket {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int ABANDONED = 2;
+
+        final RequestPriority priority;
+        final long sequence;
+        final long enqueuedAt = System.nanoTime();
+        final CountDownLatch granted = new CountDownLatch(1);
+        // Dispecerul și cel care așteaptă schimbă starea o singură dată: tichetul este fie servit, fie abandonat
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Ticket(RequestPriority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        boolean grant() {
+            if (!state.compareAndSet(WAITING, GRANTED)) return false;
+            granted.countDown();
+            return true;
+        }
+
+        boolean abandon() {
+            return state.compareAndSet(WAITING, ABANDONED);
+        }
+
+        boolean isAbandoned() {
+            return state.get() == ABANDONED;
+        }
+    }
+
+    private static class Lane {
+        final double tokensPerNano;
+        final double burst;
+        final PriorityBlockingQueue<Ticket> queue = new PriorityBlockingQueue<>(16,
+                Comparator.<Ticket>comparingInt(t -> t.priority.ordinal()).thenComparingLong(t -> t.sequence));
+        final AtomicLong sequence = new AtomicLong();
+        final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+        // Token-uri acordate unor cereri anulate între timp; dispecerul le adaugă înapoi la următoarea reumplere
+        final AtomicInteger refunds = new AtomicInteger();
+        final Thread dispatcher;
+
+        final LongAdder granted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder refunded = new LongAdder();
+        final LongAdder pauses = new LongAdder();
+        final Timer waitTimer;
+
+        double tokens;
+        long lastRefill = System.nanoTime();
+
+        Lane(Upstream upstream, double requestsPerSecond, int burst, MeterRegistry meterRegistry) {
+            this.waitTimer = meterRegistry.timer("upstream.scheduler.wait", "upstream", upstream.getKey());
+            this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = Math.max(1, burst);
+            this.tokens = this.burst;
+            this.dispatcher = new Thread(this::dispatch, "upstream-scheduler-" + upstream.getKey());
+            this.dispatcher.setDaemon(true);
+        }
+
+        void start() {
+            dispatcher.start();
+        }
+
+        private void dispatch() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    // Așteptăm să existe cerere, apoi un token; abia atunci alegem tichetul cu prioritatea
+                    // cea mai mare - astfel o cerere interactivă sosită între timp trece prima
+                    Ticket first = queue.take();
+                    queue.add(first);
+                    awaitToken();
+
+                    Ticket next = queue.poll();
+                    while (next != null && !next.grant()) next = queue.poll();
+                    if (next == null) {
+                        tokens += 1;
+                        continue;
+                    }
+
+                    waitTimer.record(System.nanoTime() - next.enqueuedAt, TimeUnit.NANOSECONDS);
+                    granted.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void awaitToken() throws InterruptedException {
+            while (true) {
+                long now = System.nanoTime();
+                long paused = pausedUntil.get() - now;
+                if (paused > 0) {
+                    TimeUnit.NANOSECONDS.sleep(paused);
+                    continue;
+                }
+
+                tokens = Math.min(burst, tokens + refunds.getAndSet(0) + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                TimeUnit.NANOSECONDS.sleep((long) Math.ceil((1 - tokens) / tokensPerNano));
+            }
+        }
+
+        void refund() {
+            refunds.incrementAndGet();
+            refunded.increment();
+        }
+
+        long queued(RequestPriority priority) {
+            long count = 0;
+            for (Ticket ticket : queue) {
+                if (!ticket.isAbandoned() && ticket.priority == priority) count++;
+            }
+            return count;
+        }
+    }
+}
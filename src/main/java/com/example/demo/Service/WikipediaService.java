@@ -0,0 +1,204 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Îmbogățirea atracțiilor cu date de pe ro.wikipedia.org, în două etape:
+ * 1. căutarea titlurilor candidate pentru fiecare loc (în paralel)
+ * 2. detaliile (imagine + extras + coordonate) pentru toți candidații deodată, prin cereri MediaWiki cu mai multe titluri
+ * Pentru fiecare loc se alege primul candidat relevant: titlul are un cuvânt comun cu numele locului,
+ * confesiunea nu se contrazice (ortodox / catolic) și pagina nu este la peste 20 km de oraș.
+ * Durata fiecărei etape ajunge în "recommendation.stage" (stage = wikipedia-search / wikipedia-details).
+ */
+@Service
+public class WikipediaService {
+
+    // MediaWiki returnează cel mult 20 de extrase per cerere (exlimit)
+    private static final int TITLES_PER_BATCH = 20;
+    // Câte rezultate ale căutării sunt luate în calcul pentru un loc
+    private static final int CANDIDATES_PER_PLACE = 3;
+    private static final double MAX_DISTANCE_FROM_CITY_METERS = 20_000;
+
+    public record WikiData(String url, String imageUrl, String extract) {}
+
+    private final OutboundHttpClient httpClient;
+    private final UpstreamJson upstreamJson;
+    private final ExecutorService wikipediaExecutor;
+    private final Timer searchTimer;
+    private final Timer detailsTimer;
+
+    public WikipediaService(OutboundHttpClient httpClient, ObjectMapper objectMapper,
+                            @Qualifier("wikipediaExecutor") ExecutorService wikipediaExecutor, MeterRegistry meterRegistry) {
+        this.httpClient = httpClient;
+        this.upstreamJson = new UpstreamJson(objectMapper);
+        this.wikipediaExecutor = wikipediaExecutor;
+        this.searchTimer = meterRegistry.timer("recommendation.stage", "stage", "wikipedia-search");
+        this.detailsTimer = meterRegistry.timer("recommendation.stage", "stage", "wikipedia-details");
+    }
+
+    /**
+     * Returnează datele Wikipedia pentru fiecare loc (cheia = numele) pentru care s-a găsit o pagină relevantă.
+     * cityCoords poate fi null (orașul nu a fost geocodat): atunci distanța nu mai este verificată.
+     */
+    public Map<String, WikiData> searchWikipediaData(List<RecommandationDto> places, String city, double[] cityCoords) {
+        if (places.isEmpty()) return Map.of();
+
+        // 1. Căutăm titlurile candidate în paralel
+        Timer.Sample searchStage = Timer.start();
+        Map<RecommandationDto, CompletableFuture<List<String>>> searches = new LinkedHashMap<>();
+        for (RecommandationDto place : places) {
+            searches.put(place, CompletableFuture.supplyAsync(
+                    RequestPriority.current().wrapSupplier(() -> resolveTitles(place, city)), wikipediaExecutor));
+        }
+
+        Map<RecommandationDto, List<String>> candidates = new LinkedHashMap<>();
+        searches.forEach((place, search) -> {
+            List<String> titles = search.join();
+            if (!titles.isEmpty()) candidates.put(place, titles);
+        });
+        searchStage.stop(searchTimer);
+
+        // 2. Cerem detaliile pentru toți candidații, câte TITLES_PER_BATCH odată
+        Timer.Sample detailsStage = Timer.start();
+        Set<String> uniqueTitles = new LinkedHashSet<>();
+        candidates.values().forEach(uniqueTitles::addAll);
+        List<String> distinctTitles = new ArrayList<>(uniqueTitles);
+        Map<String, UpstreamJson.WikiPage> pagesByTitle = new HashMap<>();
+        for (int i = 0; i < distinctTitles.size(); i += TITLES_PER_BATCH) {
+            pagesByTitle.putAll(fetchPages(distinctTitles.subList(i, Math.min(i + TITLES_PER_BATCH, distinctTitles.size()))));
+        }
+        detailsStage.stop(detailsTimer);
+
+        Map<String, WikiData> result = new HashMap<>();
+        candidates.forEach((place, titles) -> {
+            for (String title : titles) {
+                UpstreamJson.WikiPage page = pagesByTitle.get(title);
+                if (page == null || !isRelevantPage(place.name(), title, page, cityCoords)) continue;
+
+                String extract = page.extract();
+                if (extract != null && extract.length() > 300) extract = extract.substring(0, 300) + "...";
+
+                result.put(place.name(), new WikiData(
+                        "https://ro.wikipedia.org/wiki/" + URLEncoder.encode(title, StandardCharsets.UTF_8),
+                        page.imageUrl(),
+                        extract
+                ));
+                return;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Titlurile care se potrivesc cu numele locului (românesc sau englezesc), în ordinea căutării.
+     * Căutarea fără oraș este folosită doar dacă prima nu a dat niciun candidat.
+     */
+    private List<String> resolveTitles(RecommandationDto place, String city) {
+        List<String> titles = matchingTitles(performWikiSearch(place.name() + " " + city, city), place);
+        if (titles.isEmpty()) {
+            titles = matchingTitles(performWikiSearch(place.name(), city), place);
+        }
+        return titles;
+    }
+
+    private static List<String> matchingTitles(List<String> titles, RecommandationDto place) {
+        String nameLower = place.name().toLowerCase(Locale.ROOT);
+        List<String> matching = new ArrayList<>();
+        for (String title : titles) {
+            if (hasWordOverlap(place.name(), title) || hasWordOverlap(place.englishName(), title)
+                    || title.toLowerCase(Locale.ROOT).contains(nameLower)) {
+                matching.add(title);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Cel puțin un cuvânt comun mai lung de 3 litere (fără punctuație, fără diferențe de majuscule)
+     */
+    static boolean hasWordOverlap(String first, String second) {
+        if (first == null || second == null) return false;
+        Set<String> words = significantWords(first);
+        for (String word : significantWords(second)) {
+            if (words.contains(word)) return true;
+        }
+        return false;
+    }
+
+    private static Set<String> significantWords(String text) {
+        Set<String> words = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}\\s]", "").split("\\s+")) {
+            if (word.length() > 3) words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * O biserică ortodoxă nu primește pagina unei biserici catolice / reformate (și invers),
+     * iar o pagină cu coordonate trebuie să fie în raza orașului
+     */
+    static boolean isRelevantPage(String name, String title, UpstreamJson.WikiPage page, double[] cityCoords) {
+        String nameLower = name.toLowerCase(Locale.ROOT);
+        String titleLower = title.toLowerCase(Locale.ROOT);
+        String extractLower = page.extract() != null ? page.extract().toLowerCase(Locale.ROOT) : "";
+
+        if (nameLower.contains("ortodox")
+                && (titleLower.contains("catolic") || extractLower.contains("catolic") || extractLower.contains("reformat"))) return false;
+        if (nameLower.contains("catolic") && (titleLower.contains("ortodox") || extractLower.contains("ortodox"))) return false;
+
+        if (cityCoords != null && page.lat() != null && page.lon() != null) {
+            return SpatialIndex.distanceMeters(cityCoords[0], cityCoords[1], page.lat(), page.lon()) <= MAX_DISTANCE_FROM_CITY_METERS;
+        }
+        return true;
+    }
+
+    /**
+     * O singură cerere pentru mai multe titluri (separate prin "|", codificat %7C).
+     * Paginile sunt indexate după titlul cerut, ținând cont de normalizările făcute de MediaWiki.
+     */
+    private Map<String, UpstreamJson.WikiPage> fetchPages(List<String> titles) {
+        Map<String, UpstreamJson.WikiPage> pagesByTitle = new HashMap<>();
+        try {
+            List<String> encodedTitles = new ArrayList<>();
+            for (String title : titles) encodedTitles.add(URLEncoder.encode(title, StandardCharsets.UTF_8));
+
+            String detailsUrl = "/w/api.php?action=query&titles=" + String.join("%7C", encodedTitles)
+                    + "&prop=pageimages%7Cextracts%7Ccoordinates&pithumbsize=400&pilimit=max&exintro=1&explaintext=1&exlimit=max&colimit=max&format=json";
+            String response = httpClient.get(Upstream.WIKIPEDIA, detailsUrl);
+            UpstreamJson.WikiPages pages = upstreamJson.wikiPages(response);
+
+            for (String title : titles) {
+                UpstreamJson.WikiPage page = pages.byTitle().get(pages.normalized().getOrDefault(title, title));
+                if (page != null) pagesByTitle.put(title, page);
+            }
+        } catch (Exception e) {}
+        return pagesByTitle;
+    }
+
+    private List<String> performWikiSearch(String query, String city) {
+        try {
+            String url = "/w/api.php?action=query&list=search&srsearch=" + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&format=json";
+            return upstreamJson.searchTitles(httpClient.get(Upstream.WIKIPEDIA, url), city, CANDIDATES_PER_PLACE);
+        } catch (Exception e) {}
+        return List.of();
+    }
+}
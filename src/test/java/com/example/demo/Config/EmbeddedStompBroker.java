@@ -0,0 +1,181 @@
+package com.example.demo.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker STOMP minimal, în proces, folosit în teste în locul unui RabbitMQ / ActiveMQ:
+ * CONNECT/STOMP -> CONNECTED (fără heart-beat), SUBSCRIBE/UNSUBSCRIBE, SEND livrat ca MESSAGE abonaților
+ * destinației exacte, DISCONNECT (cu RECEIPT). Toate frame-urile primite sunt păstrate pentru verificări.
+ */
+class EmbeddedStompBroker implements AutoCloseable {
+
+    record Frame(String command, Map<String, String> headers, String body) {
+        String header(String name) { return headers.get(name); }
+    }
+
+    private record Subscription(Connection connection, String id, String destination) {}
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Frame> received = new LinkedBlockingQueue<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    EmbeddedStompBroker() {
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "stomp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Primul frame primit (de la oricare conexiune) cu comanda dată, sau null după timeout
+     */
+    Frame awaitFrame(String command, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            Frame frame = received.poll(left, TimeUnit.NANOSECONDS);
+            if (frame != null && frame.command().equals(command)) return frame;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) connection.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                Thread reader = new Thread(connection::readLoop, "stomp-stand-in-conn");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Connection connection, Frame frame) throws IOException {
+        received.add(frame);
+        switch (frame.command()) {
+            case "CONNECT", "STOMP" -> connection.write("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), "");
+            case "SUBSCRIBE" -> subscriptions.add(new Subscription(connection, frame.header("id"), frame.header("destination")));
+            case "UNSUBSCRIBE" -> subscriptions.removeIf(s -> s.connection() == connection && s.id().equals(frame.header("id")));
+            case "SEND" -> {
+                for (Subscription subscription : subscriptions) {
+                    if (!subscription.destination().equals(frame.header("destination"))) continue;
+                    Map<String, String> headers = new LinkedHashMap<>();
+                    headers.put("destination", subscription.destination());
+                    headers.put("subscription", subscription.id());
+                    headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                    if (frame.header("content-type") != null) headers.put("content-type", frame.header("content-type"));
+                    subscription.connection().write("MESSAGE", headers, frame.body());
+                }
+            }
+            case "DISCONNECT" -> {
+                if (frame.header("receipt") != null) connection.write("RECEIPT", Map.of("receipt-id", frame.header("receipt")), "");
+                connection.close();
+            }
+            default -> { }
+        }
+    }
+
+    private class Connection {
+        private final Socket socket;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void readLoop() {
+            try (InputStream in = socket.getInputStream()) {
+                Frame frame;
+                while ((frame = readFrame(in)) != null) handle(this, frame);
+            } catch (IOException e) {
+                // conexiunea a fost închisă
+            } finally {
+                subscriptions.removeIf(s -> s.connection() == this);
+                connections.remove(this);
+            }
+        }
+
+        synchronized void write(String command, Map<String, String> headers, String body) throws IOException {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            frame.append("content-length:").append(bytes.length).append("\n\n");
+
+            OutputStream out = socket.getOutputStream();
+            out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(bytes);
+            out.write(0);
+            out.flush();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        /**
+         * Citește un frame (până la octetul NUL); liniile goale dintre frame-uri sunt heart-beat-uri și sunt sărite
+         */
+        private Frame readFrame(InputStream in) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == 0) break;
+                if (buffer.size() == 0 && (b == '\n' || b == '\r')) continue;
+                buffer.write(b);
+            }
+            if (b == -1) return null;
+
+            String text = buffer.toString(StandardCharsets.UTF_8);
+            int headerEnd = text.indexOf("\n\n");
+            String head = headerEnd < 0 ? text : text.substring(0, headerEnd);
+            String body = headerEnd < 0 ? "" : text.substring(headerEnd + 2);
+
+            String[] lines = head.replace("\r", "").split("\n");
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                // La headere repetate contează prima apariție (STOMP 1.2)
+                if (colon > 0) headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+            }
+            return new Frame(lines[0], headers, body);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.Config;
+
+import com.example.demo.Service.AlertPublisher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * websocket.broker.mode=RELAY: WebSocketConfig se conectează la brokerul extern (aici EmbeddedStompBroker)
+ * și mesajele trimise din aplicație pleacă spre el, nu către brokerul din memorie.
+ */
+@SpringJUnitWebConfig(WebSocketBrokerRelayTests.RelayConfig.class)
+class WebSocketBrokerRelayTests {
+
+    private static final EmbeddedStompBroker broker = new EmbeddedStompBroker();
+
+    @Configuration
+    @Import(WebSocketConfig.class)
+    static class RelayConfig {
+
+        @Bean
+        WebSocketBrokerProperties webSocketBrokerProperties() {
+            WebSocketBrokerProperties properties = new WebSocketBrokerProperties();
+            properties.setMode(WebSocketBrokerProperties.Mode.RELAY);
+            properties.getRelay().setHost("127.0.0.1");
+            properties.getRelay().setPort(broker.port());
+            properties.getRelay().setSystemLogin("relay-system");
+            return properties;
+        }
+    }
+
+    @Autowired
+    @Qualifier("stompBrokerRelayMessageHandler")
+    private AbstractBrokerMessageHandler relayHandler;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @AfterAll
+    static void stopBroker() throws IOException {
+        broker.close();
+    }
+
+    @Test
+    void cityAlertsAreRelayedToExternalBroker() throws Exception {
+        EmbeddedStompBroker.Frame connect = broker.awaitFrame("CONNECT", Duration.ofSeconds(10));
+        assertThat(connect).isNotNull();
+        assertThat(connect.header("login")).isEqualTo("relay-system");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!relayHandler.isBrokerAvailable() && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        assertThat(relayHandler.isBrokerAvailable()).isTrue();
+
+        new AlertPublisher(messagingTemplate, Duration.ZERO, 20).publishToCity("Brașov", "Biserica Neagră este la 300 m");
+
+        EmbeddedStompBroker.Frame send = broker.awaitFrame("SEND", Duration.ofSeconds(10));
+        assertThat(send).isNotNull();
+        assertThat(send.header("destination")).isEqualTo("/topic/alerts/brasov");
+        assertThat(send.body()).isEqualTo("Biserica Neagră este la 300 m");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AlertPublisherTests {
+
+    private final SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+    private AlertPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) publisher.shutdown();
+    }
+
+    @Test
+    void cityDestinationIsSlugWithoutDiacritics() {
+        assertThat(AlertPublisher.cityDestination("Brașov")).isEqualTo("/topic/alerts/brasov");
+        assertThat(AlertPublisher.cityDestination(" Cluj-Napoca ")).isEqualTo("/topic/alerts/cluj-napoca");
+        assertThat(AlertPublisher.cityDestination("Târgu Mureș")).isEqualTo("/topic/alerts/targu-mures");
+        assertThat(AlertPublisher.cityDestination("???")).isEqualTo("/topic/alerts/unknown");
+    }
+
+    @Test
+    void zeroWindowSendsImmediately() {
+        publisher = new AlertPublisher(template, Duration.ZERO, 20);
+
+        publisher.publishToCity("Brașov", "Biserica Neagră este la 300 m");
+
+        verify(template).convertAndSend("/topic/alerts/brasov", (Object) "Biserica Neagră este la 300 m");
+    }
+
+    @Test
+    void timerOfBatchFlushedBySizeDoesNotFlushNextBatchEarly() throws Exception {
+        publisher = new AlertPublisher(template, Duration.ofMillis(400), 2);
+
+        publisher.publishToCity("Brașov", "first");
+        publisher.publishToCity("Brașov", "second"); // lotul plin pleacă imediat
+        verify(template).convertAndSend("/topic/alerts/brasov", (Object) List.of("first", "second"));
+
+        Thread.sleep(200);
+        publisher.publishToCity("Brașov", "third");
+
+        // Timer-ul primului lot ar fi expirat la 400 ms; al doilea lot are fereastra proprie (până la 600 ms)
+        verify(template, after(250).never()).convertAndSend(eq("/topic/alerts/brasov"), (Object) eq("third"));
+        verify(template, timeout(1_000)).convertAndSend("/topic/alerts/brasov", (Object) "third");
+    }
+
+    @Test
+    void alertsInsideWindowLeaveAsOneFrame() {
+        publisher = new AlertPublisher(template, Duration.ofMillis(100), 20);
+
+        publisher.publishToCity("Brașov", "first");
+        publisher.publishToCity("brasov", "second");
+
+        verify(template, timeout(1_000)).convertAndSend("/topic/alerts/brasov", (Object) List.of("first", "second"));
+        verify(template, after(200).never()).convertAndSend(eq("/topic/alerts/brasov"), (Object) eq("first"));
+    }
+
+    @Test
+    void singleAlertInWindowStaysPlainText() {
+        publisher = new AlertPublisher(template, Duration.ofMillis(50), 20);
+
+        publisher.publishToCity("Cluj", "only");
+
+        verify(template, timeout(1_000)).convertAndSend("/topic/alerts/cluj", (Object) "only");
+    }
+
+    @Test
+    void fullBatchIsFlushedWithoutWaitingForWindow() {
+        publisher = new AlertPublisher(template, Duration.ofMinutes(1), 2);
+
+        publisher.publishToCity("Brașov", "first");
+        publisher.publishToCity("Brașov", "second");
+
+        verify(template).convertAndSend("/topic/alerts/brasov", (Object) List.of("first", "second"));
+    }
+
+    @Test
+    void sessionAlertsAreBatchedSeparatelyAndAddressedBySessionId() {
+        publisher = new AlertPublisher(template, Duration.ofMillis(50), 20);
+
+        publisher.publishToSession("session-1", "near Tâmpa");
+        publisher.publishToSession("session-2", "near Piața Sfatului");
+
+        verify(template, timeout(1_000)).convertAndSendToUser(eq("session-1"), eq("/queue/alerts"), (Object) eq("near Tâmpa"),
+                argThat((MessageHeaders headers) -> "session-1".equals(SimpMessageHeaderAccessor.getSessionId(headers))));
+        verify(template, timeout(1_000)).convertAndSendToUser(eq("session-2"), eq("/queue/alerts"), (Object) eq("near Piața Sfatului"),
+                any(MessageHeaders.class));
+        verify(template, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
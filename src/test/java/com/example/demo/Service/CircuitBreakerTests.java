@@ -0,0 +1,85 @@
+package com.example.demo.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTests {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker circuit = new CircuitBreaker("nominatim", 3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(circuit.tryAcquire()).isTrue();
+            circuit.recordFailure();
+        }
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        assertThat(circuit.tryAcquire()).isTrue();
+        circuit.recordFailure();
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+        assertThat(circuit.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        CircuitBreaker circuit = new CircuitBreaker("nominatim", 2, Duration.ofMinutes(1));
+
+        circuit.recordFailure();
+        circuit.recordSuccess();
+        circuit.recordFailure();
+
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbeThatClosesOnSuccess() throws InterruptedException {
+        CircuitBreaker circuit = openCircuit();
+        Thread.sleep(80);
+
+        assertThat(circuit.tryAcquire()).isTrue();
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+
+        circuit.recordSuccess();
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws InterruptedException {
+        CircuitBreaker circuit = openCircuit();
+        Thread.sleep(80);
+
+        assertThat(circuit.tryAcquire()).isTrue();
+        circuit.recordFailure();
+
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuit.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releasedProbeLetsAnotherRequestProbe() throws InterruptedException {
+        CircuitBreaker circuit = openCircuit();
+        Thread.sleep(80);
+
+        assertThat(circuit.tryAcquire()).isTrue();
+        // Proba a fost anulată (sau a așteptat prea mult în coada proprie) - nu spune nimic despre serviciu
+        circuit.release();
+
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuit.tryAcquire()).isTrue();
+    }
+
+    private static CircuitBreaker openCircuit() {
+        CircuitBreaker circuit = new CircuitBreaker("photon", 1, Duration.ofMillis(50));
+        circuit.tryAcquire();
+        circuit.recordFailure();
+        assertThat(circuit.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuit;
+    }
+}
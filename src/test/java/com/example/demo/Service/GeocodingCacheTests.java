@@ -0,0 +1,71 @@
+package com.example.demo.Service;
+
+import com.example.demo.Repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class GeocodingCacheTests {
+
+    private final GeocodeCacheRepository repository = mock(GeocodeCacheRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void callersCannotModifyCachedCoordinates() {
+        GeocodingCache cache = new GeocodingCache(repository, meterRegistry, 100, Duration.ofDays(30), Duration.ofDays(1));
+        double[] coords = {45.6409, 25.5882};
+        cache.put("Biserica Neagră", "Brașov", coords);
+        coords[0] = 0;
+
+        double[] first = cache.get("Biserica Neagră", "Brașov").coordinates();
+        first[1] = 0;
+
+        assertThat(cache.get("Biserica Neagră", "Brașov").coordinates()).containsExactly(45.6409, 25.5882);
+    }
+
+    @Test
+    void keyIgnoresDiacriticsCaseAndSpacing() {
+        GeocodingCache cache = new GeocodingCache(repository, meterRegistry, 100, Duration.ofDays(30), Duration.ofDays(1));
+        cache.put("Piața  Sfatului", "Brașov", new double[]{45.6424, 25.5887});
+
+        assertThat(cache.get("piata sfatului ", "BRASOV")).isNotNull();
+    }
+
+    @Test
+    void negativeEntryHasNoCoordinates() {
+        GeocodingCache cache = new GeocodingCache(repository, meterRegistry, 100, Duration.ofDays(30), Duration.ofDays(1));
+        cache.put("Locul Inexistent", "Brașov", null);
+
+        GeocodingCache.CachedCoordinates cached = cache.get("Locul Inexistent", "Brașov");
+        assertThat(cached.found()).isFalse();
+        assertThat(cached.coordinates()).isNull();
+        assertThat(meterRegistry.get("geocoding.cache.negative.hits").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsDroppedOnRead() throws InterruptedException {
+        GeocodingCache cache = new GeocodingCache(repository, meterRegistry, 100, Duration.ofDays(30), Duration.ofMillis(1));
+        cache.put("Locul Inexistent", "Brașov", null);
+        Thread.sleep(20);
+
+        assertThat(cache.get("Locul Inexistent", "Brașov")).isNull();
+        assertThat(meterRegistry.get("geocoding.cache.size").gauge().value()).isZero();
+        assertThat(meterRegistry.get("geocoding.cache.lookups").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        GeocodingCache cache = new GeocodingCache(repository, meterRegistry, 2, Duration.ofDays(30), Duration.ofDays(1));
+        cache.put("Tâmpa", "Brașov", new double[]{45.6350, 25.5970});
+        cache.put("Piața Sfatului", "Brașov", new double[]{45.6424, 25.5887});
+        cache.get("Tâmpa", "Brașov");
+        cache.put("Biserica Neagră", "Brașov", new double[]{45.6409, 25.5882});
+
+        assertThat(cache.get("Tâmpa", "Brașov")).isNotNull();
+        assertThat(cache.get("Piața Sfatului", "Brașov")).isNull();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GroqClientTests {
+
+    private final OutboundHttpClient httpClient = mock(OutboundHttpClient.class);
+    private final LlmResponseStore store = mock(LlmResponseStore.class);
+    private final GroqClient client = new GroqClient(httpClient, new ObjectMapper(), store, true);
+
+    @Test
+    void completedStreamIsSaved() {
+        stream(chunk("{\\\"recommendations\\\"", null), chunk(": []}", "stop"), "data: [DONE]");
+
+        String text = client.completeStreaming("prompt", 0.2, delta -> {}, response -> true);
+
+        assertThat(text).isEqualTo("{\"recommendations\": []}");
+        verify(store).save(anyString(), eq(0.2), eq("prompt"), eq(text));
+    }
+
+    @Test
+    void streamWithoutDoneIsNotSaved() {
+        // Conexiunea s-a închis înainte de finalul răspunsului
+        stream(chunk("{\\\"recommendations\\\": [", null));
+
+        List<String> deltas = new ArrayList<>();
+        client.completeStreaming("prompt", 0.2, deltas::add, response -> true);
+
+        assertThat(deltas).containsExactly("{\"recommendations\": [");
+        verify(store, never()).save(anyString(), anyDouble(), anyString(), anyString());
+    }
+
+    @Test
+    void responseCutAtMaxTokensIsNotSaved() {
+        stream(chunk("{\\\"recommendations\\\": [", "length"), "data: [DONE]");
+
+        client.completeStreaming("prompt", 0.2, delta -> {}, response -> true);
+
+        verify(store, never()).save(anyString(), anyDouble(), anyString(), anyString());
+    }
+
+    @Test
+    void responseRejectedByCallerIsNotSaved() throws Exception {
+        when(httpClient.post(any(), anyString(), any(), anyString()))
+                .thenReturn("{\"choices\": [{\"index\": 0, \"message\": {\"role\": \"assistant\", \"content\": \"not json\"}, \"finish_reason\": \"stop\"}]}");
+
+        String text = client.complete("prompt", 0.2, true, response -> response.startsWith("{"));
+
+        assertThat(text).isEqualTo("not json");
+        verify(store, never()).save(anyString(), anyDouble(), anyString(), anyString());
+    }
+
+    @Test
+    void backgroundCallSkipsStoredResponseButSavesTheNewOne() {
+        when(store.find(anyString(), anyDouble(), anyString())).thenReturn("{\"recommendations\": [\"old\"]}");
+        stream(chunk("{\\\"recommendations\\\": []}", "stop"), "data: [DONE]");
+
+        String text = RequestPriority.BACKGROUND.call(() -> client.completeStreaming("prompt", 0.2, delta -> {}, response -> true));
+
+        assertThat(text).isEqualTo("{\"recommendations\": []}");
+        verify(store, never()).find(anyString(), anyDouble(), anyString());
+        verify(store).save(anyString(), eq(0.2), eq("prompt"), eq(text));
+    }
+
+    @Test
+    void unstoredCallBypassesStore() throws Exception {
+        when(httpClient.post(any(), anyString(), any(), anyString()))
+                .thenReturn("{\"choices\": [{\"message\": {\"content\": \"Did you know?\"}, \"finish_reason\": \"stop\"}]}");
+
+        assertThat(client.completeUnstored("prompt", 0.7, false)).isEqualTo("Did you know?");
+        verify(store, never()).find(anyString(), anyDouble(), anyString());
+        verify(store, never()).save(anyString(), anyDouble(), anyString(), anyString());
+    }
+
+    @Test
+    void unstoredCallIsRejectedInReplayOnlyMode() {
+        when(store.isReplayOnly()).thenReturn(true);
+
+        assertThatThrownBy(() -> client.completeStreamingUnstored("prompt", 0.7, delta -> {}))
+                .isInstanceOf(LlmResponseStore.ReplayMissException.class);
+        verifyNoInteractions(httpClient);
+    }
+
+    private static String chunk(String content, String finishReason) {
+        return "data: {\"choices\": [{\"index\": 0, \"delta\": {\"content\": \"" + content + "\"}, \"finish_reason\": "
+                + (finishReason == null ? "null" : "\"" + finishReason + "\"") + "}]}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stream(String... lines) {
+        doAnswer((Answer<Void>) invocation -> {
+            Consumer<String> onLine = invocation.getArgument(4);
+            for (String line : lines) onLine.accept(line);
+            return null;
+        }).when(httpClient).postStreaming(any(), anyString(), any(), anyString(), any());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveNotificationCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void geohashMatchesReferenceEncoding() {
+        assertThat(LiveNotificationCache.geohash(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(LiveNotificationCache.geohash(45.6409, 25.5882, 7)).startsWith("u8");
+    }
+
+    @Test
+    void nearbyPointsWithSameLocationNameShareCell() {
+        LiveNotificationCache cache = cache(3, Duration.ofHours(6), 100);
+        String key = cache.lookup(45.64090, 25.58820, "Piața Sfatului").key();
+
+        assertThat(cache.lookup(45.64091, 25.58821, "piata sfatului").key()).isEqualTo(key);
+        assertThat(cache.lookup(45.64090, 25.58820, "Tâmpa").key()).isNotEqualTo(key);
+    }
+
+    @Test
+    void messagesRotateAndPoolIsFilledOneAtATime() {
+        LiveNotificationCache cache = cache(2, Duration.ofHours(6), 100);
+        String key = cache.lookup(45.6409, 25.5882, "Piața Sfatului").key();
+        cache.put(key, "first");
+
+        LiveNotificationCache.Lookup lookup = cache.lookup(45.6409, 25.5882, "Piața Sfatului");
+        assertThat(lookup.message()).isEqualTo("first");
+        assertThat(lookup.needsMore()).isTrue();
+        // Completarea este deja în curs - a doua cerere nu mai pornește una
+        assertThat(cache.lookup(45.6409, 25.5882, "Piața Sfatului").needsMore()).isFalse();
+
+        cache.put(key, "second");
+        LiveNotificationCache.Lookup a = cache.lookup(45.6409, 25.5882, "Piața Sfatului");
+        LiveNotificationCache.Lookup b = cache.lookup(45.6409, 25.5882, "Piața Sfatului");
+        assertThat(List.of(a.message(), b.message())).containsExactlyInAnyOrder("first", "second");
+        assertThat(b.needsMore()).isFalse();
+    }
+
+    @Test
+    void failedFillCanBeRetried() {
+        LiveNotificationCache cache = cache(2, Duration.ofHours(6), 100);
+        String key = cache.lookup(45.6409, 25.5882, "Tâmpa").key();
+        cache.put(key, "first");
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").needsMore()).isTrue();
+
+        cache.fillFailed(key);
+
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").needsMore()).isTrue();
+    }
+
+    @Test
+    void fullPoolReplacesOldestMessage() {
+        LiveNotificationCache cache = cache(2, Duration.ofHours(6), 100);
+        String key = cache.lookup(45.6409, 25.5882, "Tâmpa").key();
+        cache.put(key, "first");
+        cache.put(key, "second");
+        cache.put(key, "third");
+
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").message()).isEqualTo("second");
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").message()).isEqualTo("third");
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").message()).isEqualTo("second");
+    }
+
+    @Test
+    void expiredMessagesAreNotServed() throws InterruptedException {
+        LiveNotificationCache cache = cache(3, Duration.ofMillis(10), 100);
+        String key = cache.lookup(45.6409, 25.5882, "Tâmpa").key();
+        cache.put(key, "first");
+        Thread.sleep(30);
+
+        assertThat(cache.lookup(45.6409, 25.5882, "Tâmpa").message()).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedCellIsEvicted() {
+        LiveNotificationCache cache = cache(3, Duration.ofHours(6), 2);
+        String tampa = cache.lookup(45.6350, 25.5970, "Tâmpa").key();
+        String piata = cache.lookup(45.6424, 25.5887, "Piața Sfatului").key();
+        cache.put(tampa, "Tâmpa");
+        cache.put(piata, "Piața");
+        cache.lookup(45.6350, 25.5970, "Tâmpa");
+        cache.put(cache.lookup(45.5149, 25.3672, "Castelul Bran").key(), "Bran");
+
+        assertThat(cache.lookup(45.6350, 25.5970, "Tâmpa").message()).isEqualTo("Tâmpa");
+        assertThat(cache.lookup(45.6424, 25.5887, "Piața Sfatului").message()).isNull();
+        assertThat(meterRegistry.get("live.cache.cells").gauge().value()).isEqualTo(2);
+    }
+
+    private LiveNotificationCache cache(int poolSize, Duration ttl, int maxCells) {
+        return new LiveNotificationCache(meterRegistry, 7, poolSize, ttl, maxCells);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.Service;
+
+import com.example.demo.Entity.LlmResponse;
+import com.example.demo.Repository.LlmResponseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LlmResponseStoreTests {
+
+    private static final String MODEL = "llama-3.3-70b-versatile";
+    private static final String PROMPT = "Recommend places in Brașov";
+
+    private final LlmResponseRepository repository = mock(LlmResponseRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void offNeverTouchesRepository() {
+        LlmResponseStore store = new LlmResponseStore(repository, meterRegistry, LlmResponseStore.Mode.OFF, Duration.ofDays(7));
+
+        assertThat(store.find(MODEL, 0.2, PROMPT)).isNull();
+        store.save(MODEL, 0.2, PROMPT, "{\"recommendations\": []}");
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void readWriteReturnsFreshEntryAndSkipsExpiredOne() {
+        LlmResponseStore store = new LlmResponseStore(repository, meterRegistry, LlmResponseStore.Mode.READ_WRITE, Duration.ofDays(7));
+
+        when(repository.findByPromptHash(hash())).thenReturn(Optional.of(entry(LocalDateTime.now().plusHours(1))));
+        assertThat(store.find(MODEL, 0.2, PROMPT)).isEqualTo("stored");
+
+        when(repository.findByPromptHash(hash())).thenReturn(Optional.of(entry(LocalDateTime.now().minusHours(1))));
+        assertThat(store.find(MODEL, 0.2, PROMPT)).isNull();
+
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteSavesWithTtl() {
+        LlmResponseStore store = new LlmResponseStore(repository, meterRegistry, LlmResponseStore.Mode.READ_WRITE, Duration.ofDays(7));
+        when(repository.findByPromptHash(anyString())).thenReturn(Optional.empty());
+
+        store.save(MODEL, 0.2, PROMPT, "generated");
+
+        ArgumentCaptor<LlmResponse> saved = ArgumentCaptor.forClass(LlmResponse.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getPromptHash()).isEqualTo(hash());
+        assertThat(saved.getValue().getResponse()).isEqualTo("generated");
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(saved.getValue().getCreatedAt().plusDays(7));
+    }
+
+    @Test
+    void blankResponseIsNotSaved() {
+        LlmResponseStore store = new LlmResponseStore(repository, meterRegistry, LlmResponseStore.Mode.READ_WRITE, Duration.ofDays(7));
+
+        store.save(MODEL, 0.2, PROMPT, "  ");
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void replayOnlyIgnoresExpiryAndFailsOnUnknownPrompt() {
+        LlmResponseStore store = new LlmResponseStore(repository, meterRegistry, LlmResponseStore.Mode.REPLAY_ONLY, Duration.ofDays(7));
+
+        when(repository.findByPromptHash(hash())).thenReturn(Optional.of(entry(LocalDateTime.now().minusDays(30))));
+        assertThat(store.find(MODEL, 0.2, PROMPT)).isEqualTo("stored");
+
+        when(repository.findByPromptHash(hash())).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> store.find(MODEL, 0.2, PROMPT)).isInstanceOf(LlmResponseStore.ReplayMissException.class);
+
+        store.save(MODEL, 0.2, PROMPT, "generated");
+        verify(repository, never()).save(any());
+        assertThat(lookups("replay-miss")).isEqualTo(1);
+    }
+
+    @Test
+    void hashDependsOnModelTemperatureAndPrompt() {
+        assertThat(LlmResponseStore.hash(MODEL, 0.2, PROMPT))
+                .isEqualTo(hash())
+                .isNotEqualTo(LlmResponseStore.hash(MODEL, 0.7, PROMPT))
+                .isNotEqualTo(LlmResponseStore.hash(MODEL, 0.2, PROMPT + " "));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("llm.store.lookups").tag("result", result).functionCounter().count();
+    }
+
+    private static String hash() {
+        return LlmResponseStore.hash(MODEL, 0.2, PROMPT);
+    }
+
+    private static LlmResponse entry(LocalDateTime expiresAt) {
+        return new LlmResponse(hash(), MODEL, 0.2, PROMPT, "stored", expiresAt.minusDays(7), expiresAt);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.UserLocationDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationUpdatePipelineTests {
+
+    private static final UserLocationDto PIATA = location("Piața Sfatului", 45.6424, 25.5887);
+    private static final UserLocationDto BISERICA = location("Biserica Neagră", 45.6409, 25.5882);
+    private static final UserLocationDto TAMPA = location("Tâmpa", 45.6350, 25.5970);
+
+    private final RecommandationService recommandationService = mock(RecommandationService.class);
+    private final AlertPublisher alertPublisher = mock(AlertPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PushExecutor pushExecutor = new PushExecutor(meterRegistry, 2, 10);
+    private final LocationUpdatePipeline pipeline =
+            new LocationUpdatePipeline(recommandationService, alertPublisher, pushExecutor, meterRegistry, Duration.ofMillis(100), 100);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+        pushExecutor.shutdown();
+    }
+
+    @Test
+    void burstOfUpdatesGeneratesOnlyForLastPosition() {
+        when(recommandationService.getLiveRecommendation(any(), any())).thenReturn("Tâmpa is right above you");
+
+        pipeline.submit("session-1", PIATA);
+        pipeline.submit("session-1", BISERICA);
+        pipeline.submit("session-1", TAMPA);
+
+        verify(alertPublisher, timeout(1_000)).publishToSession("session-1", "Tâmpa is right above you");
+        verify(recommandationService, after(200).times(1)).getLiveRecommendation(any(), any());
+        verify(recommandationService).getLiveRecommendation(eq(TAMPA), any());
+        assertThat(updates("received")).isEqualTo(3);
+        assertThat(updates("coalesced")).isEqualTo(2);
+        assertThat(updates("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void smallMovementDoesNotGenerateAgain() {
+        when(recommandationService.getLiveRecommendation(any(), any())).thenReturn("Welcome to Piața Sfatului");
+
+        pipeline.submit("session-1", PIATA);
+        verify(alertPublisher, timeout(1_000)).publishToSession(anyString(), anyString());
+
+        // ~20 m față de ultima notificare, sub min-distance
+        pipeline.submit("session-1", location("Piața Sfatului", 45.6425, 25.5889));
+
+        verify(recommandationService, after(300).times(1)).getLiveRecommendation(any(), any());
+        assertThat(updates("skipped-not-moved")).isEqualTo(1);
+    }
+
+    @Test
+    void newPositionSupersedesGenerationInFlight() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch firstInterrupted = new CountDownLatch(1);
+        when(recommandationService.getLiveRecommendation(eq(PIATA), any())).thenAnswer(invocation -> {
+            firstStarted.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                firstInterrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return "stale notification";
+        });
+        when(recommandationService.getLiveRecommendation(eq(TAMPA), any())).thenReturn("Tâmpa is right above you");
+
+        pipeline.submit("session-1", PIATA);
+        assertThat(firstStarted.await(1, TimeUnit.SECONDS)).isTrue();
+        pipeline.submit("session-1", TAMPA);
+
+        assertThat(firstInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        verify(alertPublisher, timeout(1_000)).publishToSession("session-1", "Tâmpa is right above you");
+        verify(alertPublisher, after(200).never()).publishToSession(anyString(), eq("stale notification"));
+        assertThat(updates("cancelled")).isEqualTo(1);
+    }
+
+    @Test
+    void disconnectDropsPendingUpdate() {
+        pipeline.submit("session-1", PIATA);
+        pipeline.onDisconnect(new SessionDisconnectEvent(this,
+                MessageBuilder.withPayload(new byte[0]).build(), "session-1", CloseStatus.NORMAL));
+
+        verify(recommandationService, after(300).never()).getLiveRecommendation(any(), any());
+        assertThat(meterRegistry.get("live.sessions").gauge().value()).isZero();
+    }
+
+    @Test
+    void sessionsAreDebouncedIndependently() {
+        when(recommandationService.getLiveRecommendation(any(), any())).thenReturn("nearby");
+
+        pipeline.submit("session-1", PIATA);
+        pipeline.submit("session-2", TAMPA);
+
+        verify(alertPublisher, timeout(1_000)).publishToSession("session-1", "nearby");
+        verify(alertPublisher, timeout(1_000)).publishToSession("session-2", "nearby");
+        verify(recommandationService, times(2)).getLiveRecommendation(any(), any());
+    }
+
+    private double updates(String event) {
+        return meterRegistry.get("live.location.updates").tag("event", event).functionCounter().count();
+    }
+
+    private static UserLocationDto location(String name, double lat, double lon) {
+        return new UserLocationDto("Brașov", name, lat, lon);
+    }
+}
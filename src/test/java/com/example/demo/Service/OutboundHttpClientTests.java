@@ -0,0 +1,88 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.UpstreamProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundHttpClientTests {
+
+    private final AtomicReference<String> rawQuery = new AtomicReference<>();
+    private final AtomicReference<String> responseBody = new AtomicReference<>("{}");
+    private HttpServer server;
+    private UpstreamScheduler scheduler;
+    private OutboundHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            rawQuery.set(exchange.getRequestURI().getRawQuery());
+            byte[] body = responseBody.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        UpstreamProperties properties = new UpstreamProperties();
+        Map<String, UpstreamProperties.Host> hosts = new HashMap<>();
+        for (Upstream upstream : Upstream.values()) {
+            hosts.put(upstream.getKey(), new UpstreamProperties.Host("http://127.0.0.1:" + server.getAddress().getPort(),
+                    Duration.ofSeconds(1), Duration.ofSeconds(5), 4, 1024, 1_000.0, 1_000));
+        }
+        properties.setHosts(hosts);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        scheduler = new UpstreamScheduler(properties, meterRegistry);
+        client = new OutboundHttpClient(properties, scheduler, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        scheduler.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void encodedQueryIsSentAsIs() {
+        String query = URLEncoder.encode("Biserica Neagră, Brașov", StandardCharsets.UTF_8);
+
+        client.get(Upstream.NOMINATIM, "/search?q=" + query + "&format=json");
+
+        assertThat(rawQuery.get()).isEqualTo("q=" + query + "&format=json");
+    }
+
+    @Test
+    void streamingLimitCountsBytesNotCharacters() {
+        // 600 de caractere, dar 1200 de octeți în UTF-8 - peste limita de 1024
+        responseBody.set("data: " + "ă".repeat(600) + "\n");
+        List<String> lines = new ArrayList<>();
+
+        assertThatThrownBy(() -> client.postStreaming(Upstream.GROQ, "/stream", new HttpHeaders(), "{}", lines::add))
+                .isInstanceOf(RestClientException.class)
+                .hasMessageContaining("exceeds 1024 bytes");
+        assertThat(lines).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.RecommandationDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineProgressTests {
+
+    private final PipelineProgress progress = new PipelineProgress();
+
+    @Test
+    void lateSubscriberGetsEarlierEventsThenNewOnes() {
+        progress.onPlaceVerified(place("Biserica Neagră"));
+        progress.onPlaceEnriched(place("Biserica Neagră"));
+
+        List<String> events = new ArrayList<>();
+        progress.subscribe(recorder(events));
+        progress.onPlaceVerified(place("Turnul Alb"));
+
+        assertThat(events).containsExactly("verified Biserica Neagră", "enriched Biserica Neagră", "verified Turnul Alb");
+    }
+
+    @Test
+    void unsubscribedListenerStopsReceivingEvents() {
+        List<String> events = new ArrayList<>();
+        RecommendationListener listener = recorder(events);
+        progress.subscribe(listener);
+        progress.onPlaceVerified(place("Biserica Neagră"));
+
+        progress.unsubscribe(listener);
+        progress.onPlaceVerified(place("Turnul Alb"));
+
+        assertThat(events).containsExactly("verified Biserica Neagră");
+    }
+
+    @Test
+    void closedProgressRejectsSubscribers() {
+        progress.onPlaceVerified(place("Biserica Neagră"));
+        progress.close();
+
+        List<String> events = new ArrayList<>();
+        assertThat(progress.subscribe(recorder(events))).isFalse();
+        assertThat(events).isEmpty();
+    }
+
+    private static RecommendationListener recorder(List<String> events) {
+        return new RecommendationListener() {
+            @Override
+            public void onPlaceVerified(RecommandationDto place) {
+                events.add("verified " + place.name());
+            }
+
+            @Override
+            public void onPlaceEnriched(RecommandationDto place) {
+                events.add("enriched " + place.name());
+            }
+        };
+    }
+
+    private static RecommandationDto place(String name) {
+        return new RecommandationDto(null, name, null, null, "Tourist Attraction", 45.64, 25.59, null, null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.Service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PushExecutorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+    private final List<String> dropped = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PushExecutor executor;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Un singur thread, ocupat până la release, și loc pentru două task-uri în coadă
+        executor = new PushExecutor(meterRegistry, 1, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(PushExecutor.Kind.NOTIFICATION, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void oldestLocationTaskIsEvictedForNewTask() throws Exception {
+        Future<?> stale = submit(PushExecutor.Kind.LOCATION, "location-1");
+        submit(PushExecutor.Kind.NOTIFICATION, "notification-1");
+
+        Future<?> fresh = submit(PushExecutor.Kind.LOCATION, "location-2");
+
+        assertThat(stale.isCancelled()).isTrue();
+        assertThat(dropped).containsExactly("location-1");
+        release.countDown();
+        fresh.get(1, TimeUnit.SECONDS);
+        assertThat(ran).containsExactly("notification-1", "location-2");
+        assertThat(meterRegistry.counter("push.tasks.dropped", "kind", "location", "reason", "stale").count()).isEqualTo(1);
+    }
+
+    @Test
+    void newTaskIsDroppedWhenQueueHoldsOnlyNotifications() throws Exception {
+        submit(PushExecutor.Kind.NOTIFICATION, "notification-1");
+        Future<?> last = submit(PushExecutor.Kind.NOTIFICATION, "notification-2");
+
+        Future<?> rejected = submit(PushExecutor.Kind.LOCATION, "location-1");
+
+        assertThat(rejected.isCancelled()).isTrue();
+        assertThat(dropped).containsExactly("location-1");
+        release.countDown();
+        last.get(1, TimeUnit.SECONDS);
+        assertThat(ran).containsExactly("notification-1", "notification-2");
+        assertThat(meterRegistry.counter("push.tasks.dropped", "kind", "location", "reason", "queue-full").count()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledTasksAreRemovedBeforeEvictingAnything() throws Exception {
+        Future<?> superseded = submit(PushExecutor.Kind.LOCATION, "location-1");
+        submit(PushExecutor.Kind.LOCATION, "location-2");
+        superseded.cancel(false);
+
+        Future<?> latest = submit(PushExecutor.Kind.LOCATION, "location-3");
+
+        assertThat(dropped).isEmpty();
+        release.countDown();
+        latest.get(1, TimeUnit.SECONDS);
+        assertThat(ran).containsExactly("location-2", "location-3");
+    }
+
+    @Test
+    void tasksSubmittedAfterShutdownAreDropped() {
+        executor.shutdown();
+
+        Future<?> late = submit(PushExecutor.Kind.NOTIFICATION, "notification-1");
+
+        assertThat(late.isCancelled()).isTrue();
+        assertThat(dropped).containsExactly("notification-1");
+    }
+
+    private Future<?> submit(PushExecutor.Kind kind, String name) {
+        return executor.submit(kind, () -> ran.add(name), () -> dropped.add(name));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.RecommendationCacheProperties;
+import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Entity.Recommendation;
+import com.example.demo.Repository.RecommendationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Stale-while-revalidate: rândurile proaspete sunt servite direct, cele din fereastra "stale" sunt servite
+ * și reîmprospătate în fundal, iar cele expirate trec prin pipeline.
+ */
+class RecommendationCacheFreshnessTests {
+
+    private final RecommendationRepository repository = mock(RecommendationRepository.class);
+    private final GroqClient groqClient = mock(GroqClient.class);
+    private final RecommendationCacheProperties properties = new RecommendationCacheProperties();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final ExecutorService geocodingExecutor = Executors.newSingleThreadExecutor();
+    private RecommandationService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setDefaultTtl(Duration.ofHours(24));
+        properties.setDefaultMaxStale(Duration.ofDays(7));
+        service = new RecommandationService(mock(RecommendationWriter.class), repository, groqClient, new ObjectMapper(),
+                mock(GeocodingService.class), mock(WikipediaService.class), mock(SpatialIndex.class),
+                mock(LiveNotificationCache.class), properties, new SimpleMeterRegistry(), refreshes::add, geocodingExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        geocodingExecutor.shutdownNow();
+    }
+
+    @Test
+    void policyFallsBackToDefaultsPerCategory() {
+        properties.getCategories().put("hotel", new RecommendationCacheProperties.CategoryPolicy(Duration.ofHours(6), null));
+
+        RecommendationCacheProperties.CategoryPolicy hotel = properties.policyFor(" Hotel ");
+        assertThat(hotel.getTtl()).isEqualTo(Duration.ofHours(6));
+        assertThat(hotel.getMaxStale()).isEqualTo(Duration.ofDays(7));
+        assertThat(properties.policyFor("Tourist Attraction").getTtl()).isEqualTo(Duration.ofHours(24));
+        assertThat(properties.policyFor(null).getTtl()).isEqualTo(Duration.ofHours(24));
+    }
+
+    @Test
+    void freshRowsAreServedWithoutRefresh() {
+        stored(row("Biserica Neagră", "Tourist Attraction", Duration.ofHours(1)));
+
+        List<RecommandationDto> result = service.getRecommandations("Brașov");
+
+        assertThat(result).extracting(RecommandationDto::name).containsExactly("Biserica Neagră");
+        assertThat(refreshes).isEmpty();
+        assertThat(service.needsWarming("Brașov")).isFalse();
+    }
+
+    @Test
+    void staleRowsAreServedAndRefreshedOnceInBackground() {
+        stored(row("Biserica Neagră", "Tourist Attraction", Duration.ofDays(2)));
+
+        assertThat(service.getRecommandations("Brașov")).extracting(RecommandationDto::name).containsExactly("Biserica Neagră");
+        assertThat(service.getRecommandations("brașov ")).hasSize(1);
+
+        assertThat(refreshes).hasSize(1);
+        assertThat(service.needsWarming("Brașov")).isTrue();
+    }
+
+    @Test
+    void weakestCategoryDecides() throws Exception {
+        properties.getCategories().put("hotel", new RecommendationCacheProperties.CategoryPolicy(Duration.ofHours(1), Duration.ofHours(1)));
+        stored(row("Biserica Neagră", "Tourist Attraction", Duration.ofHours(1)),
+                row("Aro Palace", "Hotel", Duration.ofHours(3)));
+        when(groqClient.complete(anyString(), anyDouble(), anyBoolean(), any())).thenReturn("{\"recommendations\": []}");
+
+        // Hotelurile au depășit ttl + max-stale: orașul trece prin pipeline, nu se servește din cache
+        service.getRecommandations("Brașov");
+
+        verify(groqClient, atLeastOnce()).complete(anyString(), anyDouble(), anyBoolean(), any());
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void disabledCacheIsNeverRead() {
+        properties.setEnabled(false);
+
+        assertThat(service.needsWarming("Brașov")).isFalse();
+        verify(repository, never()).findByCityNameUsingColumnCollation(anyString());
+    }
+
+    private void stored(Recommendation... rows) {
+        when(repository.findByCityNameUsingColumnCollation(anyString())).thenReturn(List.of(rows));
+    }
+
+    private static Recommendation row(String name, String category, Duration age) {
+        Recommendation rec = new Recommendation(name, null, category, null, null, 45.64, 25.58, null);
+        rec.setUpdatedAt(LocalDateTime.now().minus(age));
+        return rec;
+    }
+}
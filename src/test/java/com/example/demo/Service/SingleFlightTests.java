@@ -0,0 +1,97 @@
+package com.example.demo.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flights.execute("brasov", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "recommendations";
+        }));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(flights.isRunning("brasov")).isTrue();
+
+        Future<String> follower = executor.submit(() -> flights.execute("brasov", () -> {
+            runs.incrementAndGet();
+            return "duplicate";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("recommendations");
+        assertThat(follower.get(1, TimeUnit.SECONDS)).isEqualTo("recommendations");
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(flights.isRunning("brasov")).isFalse();
+    }
+
+    @Test
+    void followersReceiveLeaderException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flights.execute("brasov", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("groq unavailable");
+        }));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> follower = executor.submit(() -> flights.execute("brasov", () -> "unused"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("groq unavailable");
+    }
+
+    @Test
+    void keyIsReleasedAfterFailure() {
+        assertThatThrownBy(() -> flights.execute("brasov", () -> { throw new IllegalStateException("boom"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(flights.isRunning("brasov")).isFalse();
+        assertThat(flights.execute("brasov", () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        assertThat(flights.execute("brasov", () -> flights.execute("cluj", () -> "nested"))).isEqualTo("nested");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.Service;
+
+import com.example.demo.DTO.NearbyPlaceDto;
+import com.example.demo.DTO.RecommandationDto;
+import com.example.demo.Repository.RecommendationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SpatialIndexTests {
+
+    private SpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialIndex(mock(RecommendationRepository.class));
+        index.putAll("Brașov", List.of(
+                place("Biserica Neagră", 45.6409, 25.5882),
+                place("Piața Sfatului", 45.6424, 25.5887),
+                place("Tâmpa", 45.6350, 25.5970),
+                place("Castelul Bran", 45.5149, 25.3672)
+        ));
+    }
+
+    @Test
+    void returnsPlacesInsideRadiusClosestFirst() {
+        List<NearbyPlaceDto> nearby = index.nearby(45.6415, 25.5885, 500, 10);
+
+        assertThat(nearby).extracting(p -> p.place().name()).containsExactly("Biserica Neagră", "Piața Sfatului");
+        assertThat(nearby).allSatisfy(p -> assertThat(p.distanceMeters()).isLessThanOrEqualTo(500));
+    }
+
+    @Test
+    void appliesLimitAndMaxRadius() {
+        assertThat(index.nearby(45.6415, 25.5885, 2_000, 1)).hasSize(1);
+        // Bran este la ~25 km: peste MAX_RADIUS_METERS, chiar dacă se cere o rază mai mare
+        assertThat(index.nearby(45.6415, 25.5885, 100_000, 10))
+                .extracting(p -> p.place().name())
+                .doesNotContain("Castelul Bran");
+    }
+
+    @Test
+    void updatingPlaceMovesItToNewCell() {
+        index.putAll("Brașov", List.of(place("Tâmpa", 45.6409, 25.5882)));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.nearby(45.6409, 25.5882, 10, 10)).extracting(p -> p.place().name()).contains("Tâmpa");
+        assertThat(index.nearby(45.6350, 25.5970, 10, 10)).isEmpty();
+    }
+
+    @Test
+    @Timeout(2)
+    void invalidCoordinatesReturnEmptyWithoutScanningCells() {
+        assertThat(index.nearby(45.64, 1e300, 1_000, 10)).isEmpty();
+        assertThat(index.nearby(1e300, 25.58, 1_000, 10)).isEmpty();
+        assertThat(index.nearby(Double.POSITIVE_INFINITY, 25.58, 1_000, 10)).isEmpty();
+        assertThat(index.nearby(Double.NaN, 25.58, 1_000, 10)).isEmpty();
+        assertThat(index.nearby(45.64, 25.58, Double.NaN, 10)).isEmpty();
+        assertThat(index.nearby(45.64, 25.58, -1, 10)).isEmpty();
+    }
+
+    @Test
+    @Timeout(2)
+    void searchNearPoleStaysBounded() {
+        assertThat(index.nearby(90, 180, SpatialIndex.MAX_RADIUS_METERS, 10)).isEmpty();
+        assertThat(index.nearby(-89.999, -180, SpatialIndex.MAX_RADIUS_METERS, 10)).isEmpty();
+    }
+
+    @Test
+    void validatesCoordinateRanges() {
+        assertThat(SpatialIndex.isValidCoordinate(45.6, 25.5)).isTrue();
+        assertThat(SpatialIndex.isValidCoordinate(-90, 180)).isTrue();
+        assertThat(SpatialIndex.isValidCoordinate(90.0001, 0)).isFalse();
+        assertThat(SpatialIndex.isValidCoordinate(0, -180.0001)).isFalse();
+        assertThat(SpatialIndex.isValidCoordinate(Double.NaN, 0)).isFalse();
+    }
+
+    private static RecommandationDto place(String name, double lat, double lon) {
+        return new RecommandationDto(null, name, null, null, "Tourist Attraction", lat, lon, null, null);
+    }
+}
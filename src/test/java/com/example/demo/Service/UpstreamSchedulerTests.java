@@ -0,0 +1,109 @@
+package com.example.demo.Service;
+
+import com.example.demo.Config.UpstreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamSchedulerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpstreamScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) scheduler.shutdown();
+    }
+
+    @Test
+    void interactiveRequestIsGrantedBeforeEarlierBackgroundRequest() throws Exception {
+        scheduler = scheduler(2.0, Duration.ofSeconds(5));
+        scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE); // consumă burst-ul
+
+        List<RequestPriority> grantOrder = new CopyOnWriteArrayList<>();
+        Thread background = acquireAsync(RequestPriority.BACKGROUND, grantOrder);
+        Thread.sleep(100);
+        Thread interactive = acquireAsync(RequestPriority.INTERACTIVE, grantOrder);
+
+        background.join(5_000);
+        interactive.join(5_000);
+        assertThat(grantOrder).containsExactly(RequestPriority.INTERACTIVE, RequestPriority.BACKGROUND);
+    }
+
+    @Test
+    void waitLongerThanMaxQueueWaitIsRejected() throws Exception {
+        scheduler = scheduler(0.5, Duration.ofMillis(200));
+        scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE);
+
+        assertThatThrownBy(() -> scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE))
+                .isInstanceOf(UpstreamScheduler.UpstreamThrottledException.class);
+
+        assertThat(ticketCount("rejected")).isEqualTo(1);
+        assertThat(queued(RequestPriority.INTERACTIVE)).isZero();
+    }
+
+    @Test
+    void cancelledWaiterDoesNotConsumeToken() throws Exception {
+        scheduler = scheduler(1.0, Duration.ofSeconds(5));
+        scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE);
+
+        // Geocodare anulată cu cancel(true) în timp ce aștepta la coadă
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread cancelled = new Thread(() -> {
+            try {
+                scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        cancelled.start();
+        Thread.sleep(100);
+        cancelled.interrupt();
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued(RequestPriority.INTERACTIVE)).isZero();
+
+        // Următorul token (la ~1 s de la primul) revine cererii care chiar așteaptă, nu tichetului anulat
+        long start = System.nanoTime();
+        scheduler.acquire(Upstream.NOMINATIM, RequestPriority.INTERACTIVE);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_500);
+        assertThat(ticketCount("granted")).isEqualTo(2);
+    }
+
+    private Thread acquireAsync(RequestPriority priority, List<RequestPriority> grantOrder) {
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.acquire(Upstream.NOMINATIM, priority);
+                grantOrder.add(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private double ticketCount(String outcome) {
+        return meterRegistry.get("upstream.scheduler.tickets").tags("upstream", "nominatim", "outcome", outcome).functionCounter().count();
+    }
+
+    private double queued(RequestPriority priority) {
+        return meterRegistry.get("upstream.scheduler.queued").tags("upstream", "nominatim", "priority", priority.name().toLowerCase()).gauge().value();
+    }
+
+    private UpstreamScheduler scheduler(double requestsPerSecond, Duration maxQueueWait) {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setMaxQueueWait(maxQueueWait);
+        properties.setDefaults(new UpstreamProperties.Host(null, Duration.ofSeconds(1), Duration.ofSeconds(1),
+                1, 1024, requestsPerSecond, 1));
+        return new UpstreamScheduler(properties, meterRegistry);
+    }
+}
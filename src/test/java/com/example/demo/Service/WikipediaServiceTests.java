@@ -0,0 +1,39 @@
+package com.example.demo.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikipediaServiceTests {
+
+    private static final double[] BRASOV = {45.6427, 25.5887};
+
+    @Test
+    void wordOverlapIgnoresCasePunctuationAndShortWords() {
+        assertThat(WikipediaService.hasWordOverlap("Biserica Neagră", "Biserica Neagră din Brașov")).isTrue();
+        assertThat(WikipediaService.hasWordOverlap("Turnul Alb", "Turnul Negru")).isTrue();
+        assertThat(WikipediaService.hasWordOverlap("Casa Sfatului", "Piața din Cluj")).isFalse();
+        // "din" și "alb" sunt prea scurte pentru a conta
+        assertThat(WikipediaService.hasWordOverlap("Dealul din Alb", "Alb din Sibiu")).isFalse();
+        assertThat(WikipediaService.hasWordOverlap(null, "Biserica Neagră")).isFalse();
+    }
+
+    @Test
+    void orthodoxChurchDoesNotGetCatholicPage() {
+        UpstreamJson.WikiPage page = new UpstreamJson.WikiPage(null, "Biserica romano-catolică Sfântul Petru", null, null);
+
+        assertThat(WikipediaService.isRelevantPage("Catedrala Ortodoxă", "Catedrala Sfântul Petru", page, BRASOV)).isFalse();
+        assertThat(WikipediaService.isRelevantPage("Biserica Catolică", "Biserica Ortodoxă Sfântul Nicolae",
+                new UpstreamJson.WikiPage(null, null, null, null), BRASOV)).isFalse();
+    }
+
+    @Test
+    void pageFarFromCityIsRejected() {
+        UpstreamJson.WikiPage bucharest = new UpstreamJson.WikiPage(null, "Palatul", 44.4268, 26.1025);
+        UpstreamJson.WikiPage withoutCoordinates = new UpstreamJson.WikiPage(null, "Palatul", null, null);
+
+        assertThat(WikipediaService.isRelevantPage("Palatul Parlamentului", "Palatul Parlamentului", bucharest, BRASOV)).isFalse();
+        assertThat(WikipediaService.isRelevantPage("Palatul Parlamentului", "Palatul Parlamentului", bucharest, null)).isTrue();
+        assertThat(WikipediaService.isRelevantPage("Palatul Parlamentului", "Palatul Parlamentului", withoutCoordinates, BRASOV)).isTrue();
+    }
+}